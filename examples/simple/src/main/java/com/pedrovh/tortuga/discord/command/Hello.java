@@ -3,6 +3,7 @@ package com.pedrovh.tortuga.discord.command;
 
 import com.pedrovh.tortuga.discord.core.DiscordResource;
 import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.Cooldown;
 import com.pedrovh.tortuga.discord.core.command.text.BaseTextCommandHandler;
 import com.pedrovh.tortuga.discord.core.i18n.MessageResource;
 import org.javacord.api.entity.message.embed.EmbedBuilder;
@@ -15,6 +16,7 @@ import java.awt.*;
 import static com.pedrovh.tortuga.discord.core.DiscordProperties.COLOR_SUCCESS;
 
 @Command(name = "hello", description = "Says hello")
+@Cooldown(permits = 3, period = 10)
 public class Hello extends BaseTextCommandHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(Hello.class);
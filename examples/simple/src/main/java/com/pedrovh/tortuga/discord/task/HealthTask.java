@@ -1,8 +1,8 @@
 package com.pedrovh.tortuga.discord.task;
 
 import com.pedrovh.tortuga.discord.SimpleBot;
+import com.pedrovh.tortuga.discord.core.DiscordShard;
 import com.pedrovh.tortuga.discord.core.scheduler.Task;
-import org.javacord.api.DiscordApi;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,13 +13,15 @@ public class HealthTask implements Runnable {
 
     @Override
     public void run() {
-        final DiscordApi api = SimpleBot.getBot().getApi();
-        // this is an example, api being null doesn't make much sense
-        if (api != null) {
-            LOG.info("Bot is online! - status: {}", api.getYourself().getStatus());
-        } else {
-            LOG.info("Bot is offline - Restarting...");
-            SimpleBot.getBot().restart().join();
+        for (DiscordShard shard : SimpleBot.getBot().getShards()) {
+            if (shard.getStatus() != DiscordShard.Status.DISCONNECTED) {
+                LOG.info("Shard {} is {} - latency: {}ms, servers: {}",
+                        shard.getId(), shard.getStatus(), shard.getLatency().toMillis(), shard.getServerCount());
+            } else {
+                // only the shard is restarted, the others stay connected
+                LOG.info("Shard {} is offline - Restarting...", shard.getId());
+                SimpleBot.getBot().restart(shard.getId()).join();
+            }
         }
     }
 
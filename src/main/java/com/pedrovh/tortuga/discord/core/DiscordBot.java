@@ -1,25 +1,38 @@
 package com.pedrovh.tortuga.discord.core;
 
+import com.pedrovh.tortuga.discord.core.capture.CaptureListener;
+import com.pedrovh.tortuga.discord.core.capture.EventRecorder;
 import com.pedrovh.tortuga.discord.core.command.BotCommandLoader;
 import com.pedrovh.tortuga.discord.core.command.Command;
-import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandDefinition;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandFingerprint;
 import com.pedrovh.tortuga.discord.core.listener.Listener;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import com.pedrovh.tortuga.discord.core.registry.ComponentRegistry;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.DiscordApiBuilder;
 import org.javacord.api.entity.intent.Intent;
 import org.javacord.api.interaction.ApplicationCommand;
+import org.javacord.api.interaction.SlashCommand;
 import org.javacord.api.interaction.SlashCommandBuilder;
 import org.javacord.api.listener.GloballyAttachableListener;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Base class of a discord bot, abstracts {@link org.javacord.api} implementation.
@@ -27,11 +40,18 @@ import java.util.stream.Collectors;
 public class DiscordBot {
 
     private static final Logger LOG = LoggerFactory.getLogger(DiscordBot.class);
-    private static final Reflections REFLECTIONS = new Reflections(DiscordResource.get(DiscordProperties.BASE_PACKAGE));
     private static final HashMap<Class<?>, GloballyAttachableListener> LISTENERS = new HashMap<>();
 
+    /**
+     * Time between logins of shards with the same identify rate limit key.
+     */
+    private static final long IDENTIFY_INTERVAL = 5;
+
     private final DiscordApiBuilder builder;
-    private DiscordApi api;
+    private final Map<Integer, DiscordShard> shards = new ConcurrentHashMap<>();
+    private volatile int totalShards = 1;
+    private volatile boolean listenersAttached;
+    private volatile EventRecorder recorder;
 
     public DiscordBot(String token) {
         this(token, true);
@@ -53,16 +73,27 @@ public class DiscordBot {
     }
 
     /**
-     * Appends Listeners, process SlashCommands and logins the account of the token,
-     * creating and returning a {@link CompletableFuture} of the {@link DiscordApi} object.
+     * Appends Listeners, process SlashCommands and logins the account of the token, on every shard.
+     * <br>
+     * The number of shards is <code>shards</code>, <code>auto</code> for the number recommended by discord, or the
+     * total shards set in the builder. Shards log in <code>shards.concurrency</code> at a time, the
+     * <code>max_concurrency</code> discord gives the bot, waiting 5 seconds between each group, as discord requires.
+     *
+     * @return a future of the {@link DiscordApi} of shard 0, completed once every shard is connected
      */
     public CompletableFuture<DiscordApi> start() {
         return CompletableFuture
                 .runAsync(this::attachListeners)
-                .thenCompose(v -> this.builder.login())
-                .thenApply(a -> this.api = a)
+                .thenRun(this::attachCapture)
+                .thenCompose(v -> getConfiguredTotalShards())
+                .thenCompose(this::loginShards)
+                .thenApply(v -> getApi())
                 .whenComplete((a, e) -> {
-                    LOG.info("Bot connected.");
+                    if (e != null) {
+                        LOG.error("Error connecting the bot", e);
+                        return;
+                    }
+                    LOG.info("Bot connected with {} shards.", totalShards);
                     if (Boolean.TRUE.equals(DiscordResource.getBoolean(DiscordProperties.DISCORD_COMMAND_UPDATE, false)))
                         updateSlashCommands();
                 });
@@ -73,60 +104,316 @@ public class DiscordBot {
         return disconnect().thenCompose(v -> start());
     }
 
+    /**
+     * Reconnects a single shard, leaving the others connected.
+     * @param shard the id of the shard
+     * @return a future of the new {@link DiscordApi} of the shard
+     */
+    public CompletableFuture<DiscordApi> restart(int shard) {
+        LOG.info("Restarting shard {}...", shard);
+        return disconnect(shard)
+                .thenCompose(v -> loginGroup(shard))
+                .thenApply(v -> getShard(shard).getApi());
+    }
+
     public CompletableFuture<Void> disconnect() {
-        return api.disconnect().thenRun(() -> LOG.info("Bot disconnected."));
+        return CompletableFuture.allOf(shards.keySet().stream()
+                        .map(this::disconnect)
+                        .toArray(CompletableFuture[]::new))
+                .thenRun(() -> LOG.info("Bot disconnected."));
+    }
+
+    /**
+     * Disconnects a single shard, leaving the others connected.
+     * @param shard the id of the shard
+     * @return a future completed once the shard is disconnected
+     */
+    public CompletableFuture<Void> disconnect(int shard) {
+        final var current = shards.get(shard);
+        if (current == null || current.getApi() == null || current.getStatus() == DiscordShard.Status.DISCONNECTED)
+            return CompletableFuture.completedFuture(null);
+        return current.getApi().disconnect().thenRun(current::disconnected);
+    }
+
+    private CompletableFuture<Integer> getConfiguredTotalShards() {
+        final String configured = DiscordResource.get(DiscordProperties.SHARDS);
+        if (configured == null || configured.isBlank())
+            return CompletableFuture.completedFuture(builder.getTotalShards());
+        if ("auto".equalsIgnoreCase(configured.trim()))
+            return builder.setRecommendedTotalShards().thenApply(DiscordApiBuilder::getTotalShards);
+        return CompletableFuture.completedFuture(builder.setTotalShards(Integer.parseInt(configured.trim())).getTotalShards());
     }
 
+    /**
+     * Logs in every shard, a group of <code>shards.concurrency</code> shards at a time. The shards of a group have
+     * different rate limit keys (<code>shard_id % max_concurrency</code>), so they may identify in parallel.
+     */
+    private CompletableFuture<Void> loginShards(int total) {
+        totalShards = total;
+        final int concurrency = Math.max(1, DiscordResource.getInt(DiscordProperties.SHARDS_CONCURRENCY, 1));
+        final var wait = CompletableFuture.delayedExecutor(IDENTIFY_INTERVAL, TimeUnit.SECONDS);
+        CompletableFuture<Void> login = CompletableFuture.completedFuture(null);
+        for (int first = 0; first < total; first += concurrency) {
+            final int[] group = IntStream.range(first, Math.min(first + concurrency, total)).toArray();
+            login = first == 0
+                    ? login.thenCompose(v -> loginGroup(group))
+                    : login.thenComposeAsync(v -> loginGroup(group), wait);
+        }
+        return login;
+    }
+
+    /**
+     * Logs in the shards, which may identify in parallel.
+     */
+    private CompletableFuture<Void> loginGroup(int... ids) {
+        LOG.info("Logging in shards {} of {}", Arrays.toString(ids), totalShards);
+        final List<CompletableFuture<DiscordApi>> logins;
+        // the builder keeps the current shard, so logins must not interleave
+        synchronized (builder) {
+            builder.setTotalShards(totalShards);
+            for (int id : ids)
+                shards.computeIfAbsent(id, DiscordShard::new).connecting();
+            logins = builder.loginShards(ids);
+        }
+        final var connected = new CompletableFuture<?>[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            final var shard = shards.get(ids[i]);
+            connected[i] = logins.get(i).whenComplete((api, e) -> {
+                if (e != null) shard.disconnected();
+                else shard.connected(api);
+            });
+        }
+        return CompletableFuture.allOf(connected);
+    }
+
+    /**
+     * Registers the slash commands, if they changed since they were last registered.
+     * @see #updateSlashCommands(boolean)
+     */
     public void updateSlashCommands() {
-        api.bulkOverwriteGlobalApplicationCommands(getSlashCommands())
-                .whenComplete((set, err) -> LOG.info("Overwritten global application commands with: {}",
-                        set.stream()
-                                .map(ApplicationCommand::getName)
-                                .collect(Collectors.toSet())));
+        updateSlashCommands(false);
+    }
+
+    /**
+     * Registers the slash commands globally or, if <code>command.update.guilds</code> is set, in each of those guilds,
+     * which is faster while developing.
+     * <br>
+     * Unless <code>force</code> is true, the commands are only overwritten if their {@link SlashCommandFingerprint}
+     * differs from the one saved in <code>command.update.fingerprint</code>, when that file is set,
+     * and from the fingerprint of the commands already registered.
+     *
+     * @param force true to overwrite the commands even if they didn't change
+     * @return a future completed once the commands are registered in every scope
+     */
+    public CompletableFuture<Void> updateSlashCommands(boolean force) {
+        final var definitions = getSlashCommandDefinitions();
+        final String guilds = DiscordResource.get(DiscordProperties.DISCORD_COMMAND_UPDATE_GUILDS);
+        if (guilds == null || guilds.isBlank())
+            return updateSlashCommands(0L, definitions, force);
+
+        return CompletableFuture.allOf(Arrays.stream(guilds.split(","))
+                .map(String::trim)
+                .filter(guild -> !guild.isEmpty())
+                .map(guild -> updateSlashCommands(Long.parseLong(guild), definitions, force))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * @param guildId the guild to register the commands in, 0 to register them globally
+     */
+    private CompletableFuture<Void> updateSlashCommands(long guildId, List<SlashCommandDefinition> definitions, boolean force) {
+        final String scope = guildId == 0 ? "global" : String.valueOf(guildId);
+        final String fingerprint = SlashCommandFingerprint.of(definitions, guildId != 0);
+        if (!force && fingerprint.equals(getSavedFingerprint(scope))) {
+            LOG.info("Slash commands of scope '{}' are up to date, fingerprint {}", scope, fingerprint);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final CompletableFuture<String> registered = force
+                ? CompletableFuture.completedFuture(null)
+                : getRegisteredSlashCommands(guildId)
+                    .thenApply(commands -> SlashCommandFingerprint.of(
+                            commands.stream().map(SlashCommandDefinition::of).toList(), guildId != 0))
+                    .exceptionally(e -> {
+                        LOG.warn("Unable to get the slash commands registered in scope '{}'", scope, e);
+                        return null;
+                    });
+
+        return registered.thenCompose(current -> {
+            if (fingerprint.equals(current)) {
+                LOG.info("Slash commands of scope '{}' are already registered, fingerprint {}", scope, fingerprint);
+                saveFingerprint(scope, fingerprint);
+                return CompletableFuture.completedFuture(null);
+            }
+            final Set<SlashCommandBuilder> builders = definitions.stream()
+                    .map(SlashCommandDefinition::toBuilder)
+                    .collect(Collectors.toSet());
+            final var overwrite = guildId == 0
+                    ? getApi().bulkOverwriteGlobalApplicationCommands(builders)
+                    : getApi().bulkOverwriteServerApplicationCommands(guildId, builders);
+            return overwrite.handle((set, e) -> {
+                if (e != null) {
+                    LOG.error("Error overwriting the slash commands of scope '{}'", scope, e);
+                } else {
+                    LOG.info("Overwritten slash commands of scope '{}' with: {}", scope,
+                            set.stream().map(ApplicationCommand::getName).collect(Collectors.toSet()));
+                    saveFingerprint(scope, fingerprint);
+                }
+                return null;
+            });
+        });
+    }
+
+    private CompletableFuture<Set<SlashCommand>> getRegisteredSlashCommands(long guildId) {
+        final var api = getApi();
+        if (guildId == 0)
+            return api.getGlobalSlashCommands();
+        return getApis().stream()
+                .flatMap(shard -> shard.getServerById(guildId).stream())
+                .findFirst()
+                .map(api::getServerSlashCommands)
+                .orElseGet(() -> CompletableFuture.failedFuture(new IllegalStateException("Unknown guild " + guildId)));
+    }
+
+    @Nullable
+    private String getSavedFingerprint(String scope) {
+        final Path file = getFingerprintFile();
+        if (file == null || !Files.exists(file))
+            return null;
+        return readFingerprints(file).getProperty(scope);
+    }
+
+    private synchronized void saveFingerprint(String scope, String fingerprint) {
+        final Path file = getFingerprintFile();
+        if (file == null)
+            return;
+        final Properties fingerprints = Files.exists(file) ? readFingerprints(file) : new Properties();
+        fingerprints.setProperty(scope, fingerprint);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            fingerprints.store(out, "Fingerprints of the registered slash commands");
+        } catch (IOException e) {
+            LOG.error("Error saving the slash commands fingerprint to {}", file, e);
+        }
+    }
+
+    private static Properties readFingerprints(Path file) {
+        final Properties fingerprints = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            fingerprints.load(in);
+        } catch (IOException e) {
+            LOG.error("Error reading the slash commands fingerprint from {}", file, e);
+        }
+        return fingerprints;
+    }
+
+    @Nullable
+    private static Path getFingerprintFile() {
+        final String file = DiscordResource.get(DiscordProperties.DISCORD_COMMAND_UPDATE_FINGERPRINT);
+        return file == null || file.isBlank() ? null : Paths.get(file.trim());
     }
 
     public Set<SlashCommandBuilder> getSlashCommands() {
-        return BotCommandLoader.getSlashHandlers().stream()
-                .map(handler -> {
-                    Command command = handler.getAnnotation(Command.class);
-                    SlashCommandHandler instance = getInstanceOf(handler);
-                    SlashCommandBuilder slashCommandBuilder = new SlashCommandBuilder()
-                            .setName(command.name())
-                            .setDescription(command.description())
-                            .setEnabledInDms(instance.enabledInDMs())
-                            .setNsfw(instance.nsfw())
-                            .setOptions(getInstanceOf(handler).getOptions());
-
-                    if (command.permissions() != null)
-                        slashCommandBuilder.setDefaultEnabledForPermissions(command.permissions());
-
-                    return slashCommandBuilder;
-                })
+        return getSlashCommandDefinitions().stream()
+                .map(SlashCommandDefinition::toBuilder)
                 .collect(Collectors.toSet());
     }
 
     /**
-     * Retrieves the created DiscordApi instance. <br>
+     * @return the definitions of the slash commands handled by this bot, sorted by name
+     */
+    public List<SlashCommandDefinition> getSlashCommandDefinitions() {
+        return BotCommandLoader.getSlashHandlers().stream()
+                .map(handler -> SlashCommandDefinition.of(handler.getAnnotation(Command.class), getInstanceOf(handler)))
+                .sorted(Comparator.comparing(SlashCommandDefinition::name))
+                .toList();
+    }
+
+    /**
+     * Retrieves the created DiscordApi instance of shard 0, which is the only one unless the bot is sharded. <br>
      * You should only call this after executing the {@link Callable}
      * @return the DiscordApi
      */
     public DiscordApi getApi() {
-        return api;
+        final var shard = shards.get(0);
+        return shard != null ? shard.getApi() : null;
+    }
+
+    /**
+     * @return the DiscordApi of every shard that connected, by shard id
+     */
+    public List<DiscordApi> getApis() {
+        return getShards().stream()
+                .map(DiscordShard::getApi)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * @param shard the id of the shard
+     * @return the shard, or <code>null</code> if it never logged in
+     */
+    @Nullable
+    public DiscordShard getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * @return every shard that logged in, with its status and latency, by id
+     */
+    public List<DiscordShard> getShards() {
+        return shards.values().stream()
+                .sorted(Comparator.comparingInt(DiscordShard::getId))
+                .toList();
+    }
+
+    public int getTotalShards() {
+        return totalShards;
     }
 
     /**
      * Adds instances of classes annotated by {@link Listener} to the DiscordApi to be created by the {@link DiscordApiBuilder} of this class.
+     * The builder attaches them to every shard it logs in, so they're only added once, even when the bot restarts.
      */
     protected void attachListeners() {
+        if (listenersAttached)
+            return;
+        listenersAttached = true;
         LISTENERS.forEach((key, value) -> this.builder.addListener(key.asSubclass(GloballyAttachableListener.class), value));
     }
 
+    /**
+     * Starts capturing the command events received to <code>capture.file</code>, if it is set,
+     * so they can be replayed later through an {@link com.pedrovh.tortuga.discord.core.capture.EventReplayer}.
+     * The capture goes on through restarts, and the file is closed when the JVM exits.
+     */
+    protected void attachCapture() {
+        final String file = DiscordResource.get(DiscordProperties.CAPTURE_FILE);
+        if (recorder != null || file == null || file.isBlank())
+            return;
+        try {
+            final var current = new EventRecorder(Paths.get(file.trim()));
+            Runtime.getRuntime().addShutdownHook(new Thread(current::close, "tortuga-capture-close"));
+            this.builder.addListener(new CaptureListener(current));
+            recorder = current;
+        } catch (IOException e) {
+            LOG.error("Unable to capture command events to {}", file, e);
+        }
+    }
+
+    /**
+     * @return the recorder of the command events received, or <code>null</code> if <code>capture.file</code> is not set
+     */
+    @Nullable
+    public EventRecorder getRecorder() {
+        return recorder;
+    }
+
     /**
      * Searches for classes annotated by {@link Listener}, creates instances of them via {@link #getInstanceOf(Class)},
      * and saves in cache.
      */
     private void initializeListeners() {
-        REFLECTIONS.getTypesAnnotatedWith(Listener.class).forEach(listener -> {
+        ComponentRegistry.getInstance().getListeners().forEach(listener -> {
             if (GloballyAttachableListener.class.isAssignableFrom(listener)) {
                 Class<?> registerAs = listener.getAnnotation(Listener.class).value();
                 var instance = (GloballyAttachableListener) getInstanceOf(listener);
@@ -150,7 +437,7 @@ public class DiscordBot {
      */
     protected <T> T getInstanceOf(Class<T> clazz) {
         try {
-            return clazz.getDeclaredConstructor().newInstance();
+            return ComponentFactory.newInstance(clazz);
         } catch (Exception e) {
             LOG.error(String.format("Error instantiating class %s", clazz.getName()), e);
             return null;
@@ -0,0 +1,185 @@
+package com.pedrovh.tortuga.discord.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.awt.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_TEXT_PREFIX;
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.MESSAGE_CHARACTER_LIMIT;
+
+/**
+ * Immutable snapshot of <code>discord.properties</code>.
+ * <br>
+ * <code>${ENV}</code> values are substituted and every value is parsed once, when the snapshot is created,
+ * so readers only pay for a map lookup. Values read on every message are also kept as primitive fields.
+ *
+ * @see DiscordResource#config()
+ */
+public final class DiscordConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiscordConfig.class);
+    private static final Set<String> TIME_UNITS = new HashSet<>();
+
+    static {
+        for (TimeUnit unit : TimeUnit.values())
+            TIME_UNITS.add(unit.name());
+    }
+
+    private final Map<String, String> values;
+    private final Map<String, Integer> ints = new HashMap<>();
+    private final Map<String, Boolean> booleans = new HashMap<>();
+    private final Map<String, TimeUnit> timeUnits = new HashMap<>();
+    private final Map<String, Color> colors = new HashMap<>();
+    /** keys already logged as not being an integer, a time unit or a color, so each is only logged once */
+    private final Set<String> invalidInts = ConcurrentHashMap.newKeySet();
+    private final Set<String> invalidTimeUnits = ConcurrentHashMap.newKeySet();
+    private final Set<String> invalidColors = ConcurrentHashMap.newKeySet();
+
+    private final String textPrefix;
+    private final int messageCharacterLimit;
+
+    private DiscordConfig(Map<String, String> values) {
+        this.values = values;
+        values.forEach(this::parse);
+        this.textPrefix = values.get(COMMAND_TEXT_PREFIX);
+        this.messageCharacterLimit = getInt(MESSAGE_CHARACTER_LIMIT, 4_000);
+    }
+
+    /**
+     * @param properties the raw properties
+     * @return a snapshot of <code>properties</code>, with environment variables substituted
+     */
+    public static DiscordConfig of(Properties properties) {
+        final Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (value.startsWith("${") && value.endsWith("}"))
+                value = System.getenv(value.substring(2, value.length() - 1));
+            if (value != null)
+                values.put(key, value);
+        }
+        return new DiscordConfig(Collections.unmodifiableMap(values));
+    }
+
+    private void parse(String key, String value) {
+        String trimmed = value.trim();
+        booleans.put(key, Boolean.parseBoolean(trimmed));
+        if (TIME_UNITS.contains(trimmed))
+            timeUnits.put(key, TimeUnit.valueOf(trimmed));
+        if (isNumeric(trimmed)) {
+            try {
+                ints.put(key, Integer.parseInt(trimmed));
+            } catch (NumberFormatException e) {
+                // out of range, logged if it's read as an int
+            }
+        }
+        try {
+            // decimal, octal, #hex and 0xhex, like Color.decode
+            colors.put(key, Color.decode(trimmed));
+        } catch (NumberFormatException e) {
+            // not a color, logged if it's read as one
+        }
+    }
+
+    private static boolean isNumeric(String value) {
+        if (value.isEmpty()) return false;
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (start == value.length()) return false;
+        for (int i = start; i < value.length(); i++)
+            if (!Character.isDigit(value.charAt(i))) return false;
+        return true;
+    }
+
+    // region getters
+
+    @Nullable
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * @return the parsed integer, or <code>null</code> if the key is missing or isn't an integer
+     */
+    @Nullable
+    public Integer getInt(String key) {
+        Integer value = ints.get(key);
+        if (value == null && values.containsKey(key) && invalidInts.add(key))
+            LOG.warn("Unable to parse integer for key '{}'", key);
+        return value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = getInt(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Nullable
+    public Boolean getBoolean(String key) {
+        return booleans.get(key);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = booleans.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Nullable
+    public TimeUnit getTimeUnit(String key) {
+        TimeUnit unit = timeUnits.get(key);
+        if (unit == null && values.containsKey(key) && invalidTimeUnits.add(key))
+            LOG.warn("Unable to parse time unit for key '{}'", key);
+        return unit;
+    }
+
+    public TimeUnit getTimeUnit(String key, TimeUnit defaultValue) {
+        TimeUnit unit = getTimeUnit(key);
+        return unit != null ? unit : defaultValue;
+    }
+
+    /**
+     * @return the parsed color, or <code>null</code> if the key is missing or isn't a color
+     */
+    @Nullable
+    public Color getColor(String key) {
+        Color color = colors.get(key);
+        if (color == null && values.containsKey(key) && invalidColors.add(key))
+            LOG.warn("Unable to parse color for key '{}'", key);
+        return color;
+    }
+
+    public Color getColor(String key, Color defaultValue) {
+        Color color = getColor(key);
+        return color != null ? color : defaultValue;
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * @return <code>command.text.prefix</code>, or <code>null</code> if not set
+     */
+    @Nullable
+    public String textPrefix() {
+        return textPrefix;
+    }
+
+    /**
+     * @return <code>message.character.limit</code>, 4000 by default
+     */
+    public int messageCharacterLimit() {
+        return messageCharacterLimit;
+    }
+
+    // endregion
+
+}
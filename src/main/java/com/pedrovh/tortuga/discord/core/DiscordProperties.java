@@ -4,11 +4,33 @@ public class DiscordProperties {
     public static final String BASE_PACKAGE = "basePackage";
     public static final String DISCORD_TOKEN = "token";
     public static final String DISCORD_COMMAND_UPDATE = "command.update";
+    public static final String DISCORD_COMMAND_UPDATE_GUILDS = "command.update.guilds";
+    public static final String DISCORD_COMMAND_UPDATE_FINGERPRINT = "command.update.fingerprint";
+    public static final String SHARDS = "shards";
+    public static final String SHARDS_CONCURRENCY = "shards.concurrency";
     public static final String COMMAND_TEXT_PREFIX = "command.text.prefix";
+    public static final String COMMAND_TEXT_IGNORE_CASE = "command.text.ignore.case";
     public static final String MESSAGE_CHARACTER_LIMIT = "message.character.limit";
     public static final String COLOR_SUCCESS = "color.success";
     public static final String COLOR_WARNING = "color.warning";
     public static final String COLOR_ERROR = "color.error";
+    public static final String COMMAND_SLASH_DEFER_THRESHOLD = "command.slash.defer.threshold";
+    public static final String DISPATCH_EXECUTOR = "dispatch.executor";
+    public static final String DISPATCH_THREADS = "dispatch.threads";
+    public static final String DISPATCH_ORDERING = "dispatch.ordering";
+    public static final String DISPATCH_STRIPES = "dispatch.stripes";
+    public static final String DISPATCH_QUEUE_CAPACITY = "dispatch.queue.capacity";
+    public static final String DISPATCH_QUEUE_POLICY = "dispatch.queue.policy";
+    public static final String DISPATCH_QUEUE_REPLY = "dispatch.queue.reply";
+    public static final String DISPATCH_DEADLINE_TEXT = "dispatch.deadline.text";
+    public static final String DISPATCH_DEADLINE_BACKGROUND = "dispatch.deadline.background";
+    public static final String CONFIG_WATCH = "config.watch";
+    public static final String GUILD_SETTINGS_PROVIDER = "guild.settings.provider";
+    public static final String GUILD_SETTINGS_FILE = "guild.settings.file";
+    public static final String GUILD_SETTINGS_CACHE_SIZE = "guild.settings.cache.size";
+    public static final String GUILD_SETTINGS_CACHE_TTL = "guild.settings.cache.ttl";
+    public static final String METRICS_EXPORT_INTERVAL = "metrics.export.interval";
+    public static final String CAPTURE_FILE = "capture.file";
 
     protected DiscordProperties() {}
 }
@@ -6,96 +6,102 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.awt.*;
 import java.io.IOException;
-import java.util.Optional;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
-
+import java.util.function.Consumer;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.CONFIG_WATCH;
+
+/**
+ * Static access to <code>discord.properties</code>.
+ * <br>
+ * Values are read from an immutable {@link DiscordConfig} snapshot, published atomically on every (re)load, so readers
+ * never lock and always see a consistent set of values.
+ * The file is read from the classpath, or from the path in the <code>discord.config</code> system property.
+ * When <code>config.watch=true</code> and the file is on disk, changes to it are reloaded automatically.
+ */
 @SuppressWarnings("unused")
 public class DiscordResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(DiscordResource.class);
-    protected static final Properties prop = new Properties();
+    public static final String CONFIG_FILE_PROPERTY = "discord.config";
+    private static final String FILE_NAME = "discord.properties";
+
+    private static final List<Consumer<DiscordConfig>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile DiscordConfig config;
+    private static Thread watcher;
 
     private DiscordResource(){}
 
+    /**
+     * @return the current configuration snapshot, loading it on first access
+     */
+    public static DiscordConfig config() {
+        DiscordConfig current = config;
+        if (current == null) {
+            synchronized (DiscordResource.class) {
+                current = config;
+                if (current == null) {
+                    load();
+                    current = config;
+                }
+            }
+        }
+        return current;
+    }
+
     // region getters
 
     public static String get(String key) {
-        if (prop.isEmpty()) {
-            load();
-        }
-        String value = prop.getProperty(key);
-        if (value == null) {
+        String value = config().get(key);
+        if (value == null)
             LOG.debug("Value for key '{}' not found in properties", key);
-            return null;
-        }
-
-        if (value.startsWith("${") && value.endsWith("}"))
-            value = System.getenv(value.substring(2, value.length() - 1));
-
         return value;
     }
 
     public static String get(String key, String defaultValue) {
-        return Optional.ofNullable(get(key)).orElse(defaultValue);
+        return config().get(key, defaultValue);
     }
 
     @Nullable
     public static Integer getInt(String key) {
-        String value = get(key);
-        if(value == null) return null;
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            LOG.warn("Unable to parse integer for key '{}'", key);
-            return null;
-        }
+        return config().getInt(key);
     }
 
     public static Integer getInt(String key, Integer defaultValue) {
-        return Optional.ofNullable(getInt(key)).orElse(defaultValue);
+        Integer value = config().getInt(key);
+        return value != null ? value : defaultValue;
     }
 
     @Nullable
     public static Boolean getBoolean(String key) {
-        String value = get(key);
-        if(value == null) return null;
-        try {
-            return Boolean.parseBoolean(value);
-        } catch (NumberFormatException e) {
-            LOG.warn("Unable to parse boolean for key '{}'", key);
-            return null;
-        }
+        return config().getBoolean(key);
     }
 
     public static Boolean getBoolean(String key, boolean defaultValue) {
-        return Optional.ofNullable(getBoolean(key)).orElse(defaultValue);
+        return config().getBoolean(key, defaultValue);
     }
 
     public static TimeUnit getTimeUnit(String key) {
-        String value = get(key);
-        if(value == null) return null;
-        try {
-            return TimeUnit.valueOf(value);
-        } catch (IllegalArgumentException e) {
-            LOG.warn("Unable to parse time unit for key '{}'", key);
-            return null;
-        }
+        return config().getTimeUnit(key);
     }
 
     public static TimeUnit getTimeUnit(String key, TimeUnit defaultValue) {
-        return Optional.ofNullable(getTimeUnit(key)).orElse(defaultValue);
+        return config().getTimeUnit(key, defaultValue);
     }
 
     public static Color getColor(String key) {
-        String value = get(key);
-        if(value == null) return null;
-        try {
-            return Color.decode(value);
-        } catch (NumberFormatException e) {
-            LOG.warn("Unable to parse color for key '{}'", key);
-            return null;
-        }
+        return config().getColor(key);
+    }
+
+    public static Color getColor(String key, Color defaultValue) {
+        return config().getColor(key, defaultValue);
     }
 
     // endregion gets
@@ -103,7 +109,7 @@ public class DiscordResource {
     // region parse value or get property
 
     public static int getPropertyOrParseDefaultInteger(String prop, String str) {
-        return getInt(prop, Integer.parseInt(str));
+        return config().getInt(prop, Integer.parseInt(str));
     }
 
     public static TimeUnit getPropertyOrParseDefaultTimeUnit(String prop, String str) {
@@ -112,14 +118,109 @@ public class DiscordResource {
 
     // endregion
 
-    public static void load() {
+    /**
+     * Registers a listener called with the new snapshot after every reload.
+     * Use it to refresh values derived from the configuration.
+     *
+     * @param listener the listener
+     */
+    public static void onReload(Consumer<DiscordConfig> listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * (Re)loads <code>discord.properties</code> and publishes a new snapshot.
+     * If the file can't be read, the current snapshot is kept.
+     */
+    public static synchronized void load() {
+        final Properties properties = new Properties();
+        final Path path = getConfigPath();
+        LOG.info("Loading {} file...", path != null ? path : FILE_NAME);
+        try (InputStream in = path != null ?
+                Files.newInputStream(path) :
+                DiscordProperties.class.getClassLoader().getResourceAsStream(FILE_NAME)) {
+            if (in == null) {
+                LOG.error("{} not found", FILE_NAME);
+            } else {
+                properties.load(in);
+            }
+        } catch (IOException ex) {
+            LOG.error("Error reading {}", FILE_NAME, ex);
+            if (config != null) return;
+        }
+
+        final DiscordConfig previous = config;
+        final DiscordConfig current = DiscordConfig.of(properties);
+        config = current;
+
+        if (previous != null) {
+            for (Consumer<DiscordConfig> listener : LISTENERS) {
+                try {
+                    listener.accept(current);
+                } catch (RuntimeException e) {
+                    LOG.error("Error notifying configuration reload", e);
+                }
+            }
+        }
+        if (path != null && current.getBoolean(CONFIG_WATCH, false))
+            watch(path);
+    }
+
+    /**
+     * @return the file <code>discord.properties</code> is read from, or <code>null</code> if it's inside a jar
+     */
+    @Nullable
+    private static Path getConfigPath() {
+        String file = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (file != null) return Paths.get(file).toAbsolutePath();
+
+        URL url = DiscordProperties.class.getClassLoader().getResource(FILE_NAME);
+        if (url == null || !"file".equals(url.getProtocol())) return null;
         try {
-            LOG.info("Loading discord.properties file...");
-            prop.load(DiscordProperties.class.getClassLoader().getResourceAsStream("discord.properties"));
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException | FileSystemNotFoundException e) {
+            return null;
         }
-        catch (IOException ex) {
-            LOG.error("Error reading discord.properties", ex);
+    }
+
+    private static void watch(Path path) {
+        if (watcher != null) return;
+        final Path directory = path.getParent();
+        final WatchService service;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            LOG.error("Unable to watch {} for changes", path, e);
+            return;
         }
+        LOG.info("Watching {} for changes", path);
+        watcher = Thread.ofPlatform().daemon().name("tortuga-config-watcher").start(() -> {
+            try (service) {
+                while (!Thread.currentThread().isInterrupted()) {
+                    WatchKey key = service.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path changedPath && path.getFileName().equals(changedPath))
+                            changed = true;
+                    }
+                    key.reset();
+                    if (changed) {
+                        // editors usually write in more than one step
+                        Thread.sleep(100);
+                        for (WatchKey pending = service.poll(); pending != null; pending = service.poll()) {
+                            pending.pollEvents();
+                            pending.reset();
+                        }
+                        load();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | ClosedWatchServiceException e) {
+                LOG.warn("Stopped watching {}", path, e);
+            }
+        });
     }
 
 }
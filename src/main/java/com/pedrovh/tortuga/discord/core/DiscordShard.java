@@ -0,0 +1,109 @@
+package com.pedrovh.tortuga.discord.core;
+
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import org.javacord.api.DiscordApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A gateway connection of a {@link DiscordBot}, serving the guilds where <code>(guild_id >> 22) % total_shards</code>
+ * is its id.
+ * <br>
+ * Its status follows the connection of its {@link DiscordApi}, and is exported, with the gateway latency, as the
+ * <code>tortuga.shard.connected</code> and <code>tortuga.shard.latency</code> gauges, tagged with the shard id.
+ */
+public final class DiscordShard {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiscordShard.class);
+
+    public enum Status { CONNECTING, CONNECTED, RECONNECTING, DISCONNECTED }
+
+    private final int id;
+    private volatile DiscordApi api;
+    private volatile Status status = Status.DISCONNECTED;
+    private volatile Instant since = Instant.now();
+
+    DiscordShard(int id) {
+        this.id = id;
+        final String shard = String.valueOf(id);
+        final var metrics = MetricsRegistry.getInstance();
+        metrics.gauge("tortuga.shard.connected", () -> status == Status.CONNECTED ? 1 : 0, "shard", shard);
+        metrics.gauge("tortuga.shard.latency", () -> getLatency().toMillis(), "shard", shard);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the api of the shard, or <code>null</code> if it never connected
+     */
+    @Nullable
+    public DiscordApi getApi() {
+        return api;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return when the shard got its current status
+     */
+    public Instant getSince() {
+        return since;
+    }
+
+    /**
+     * @return the latest gateway latency, or zero if the shard isn't connected
+     */
+    public Duration getLatency() {
+        final var current = api;
+        if (current == null || status != Status.CONNECTED)
+            return Duration.ZERO;
+        final var latency = current.getLatestGatewayLatency();
+        return latency.isNegative() ? Duration.ZERO : latency;
+    }
+
+    /**
+     * @return how many guilds the shard serves, 0 if it isn't connected
+     */
+    public int getServerCount() {
+        final var current = api;
+        return current == null || status == Status.DISCONNECTED ? 0 : current.getServers().size();
+    }
+
+    void connecting() {
+        setStatus(Status.CONNECTING);
+    }
+
+    void connected(DiscordApi api) {
+        this.api = api;
+        api.addLostConnectionListener(event -> setStatus(Status.RECONNECTING));
+        api.addReconnectListener(event -> setStatus(Status.CONNECTED));
+        api.addResumeListener(event -> setStatus(Status.CONNECTED));
+        setStatus(Status.CONNECTED);
+    }
+
+    void disconnected() {
+        setStatus(Status.DISCONNECTED);
+    }
+
+    private void setStatus(Status status) {
+        if (this.status == status)
+            return;
+        LOG.info("Shard {} is {}", id, status);
+        this.status = status;
+        this.since = Instant.now();
+    }
+
+    @Override
+    public String toString() {
+        return "DiscordShard{id=" + id + ", status=" + status + ", since=" + since + ", latency=" + getLatency().toMillis() + "ms}";
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.pedrovh.tortuga.discord.core.capture;
+
+import com.pedrovh.tortuga.discord.core.guild.GuildSettingsService;
+import org.javacord.api.entity.DiscordEntity;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.listener.interaction.SlashCommandCreateListener;
+import org.javacord.api.listener.message.MessageCreateListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Records the command events the bot receives to an {@link EventRecorder}:
+ * every slash command, and every message that may be a command, according to
+ * {@link GuildSettingsService#mayBeCommand(CharSequence)}.
+ */
+public class CaptureListener implements SlashCommandCreateListener, MessageCreateListener {
+
+    private final EventRecorder recorder;
+
+    public CaptureListener(EventRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void onSlashCommandCreate(SlashCommandCreateEvent event) {
+        final var interaction = event.getSlashCommandInteraction();
+        recorder.record(new CapturedEvent(
+                CapturedEvent.Kind.SLASH,
+                now(),
+                interaction.getId(),
+                interaction.getServer().map(DiscordEntity::getId).orElse(0L),
+                interaction.getChannel().map(DiscordEntity::getId).orElse(0L),
+                interaction.getUser().getId(),
+                interaction.getFullCommandName(),
+                options(interaction.getArguments())));
+    }
+
+    @Override
+    public void onMessageCreate(MessageCreateEvent event) {
+        final var content = event.getMessageContent();
+        if (event.getMessageAuthor().isYourself() || !GuildSettingsService.getInstance().mayBeCommand(content))
+            return;
+        recorder.record(new CapturedEvent(
+                CapturedEvent.Kind.TEXT,
+                now(),
+                event.getMessageId(),
+                event.getServer().map(DiscordEntity::getId).orElse(0L),
+                event.getChannel().getId(),
+                event.getMessageAuthor().getId(),
+                content,
+                List.of()));
+    }
+
+    private static List<CapturedEvent.Option> options(List<SlashCommandInteractionOption> arguments) {
+        return arguments.stream()
+                .map(option -> new CapturedEvent.Option(option.getName(), option.getStringRepresentationValue().orElse("")))
+                .toList();
+    }
+
+    private static long now() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.pedrovh.tortuga.discord.core.capture;
+
+import java.util.List;
+
+/**
+ * A command event as it was received by the bot, written by the {@link EventRecorder}.
+ *
+ * @param kind      whether it was a slash command or a message
+ * @param timestamp when it was received, in microseconds since the epoch
+ * @param id        the id of the interaction or message
+ * @param guildId   the id of the guild it was sent in, 0 outside of guilds
+ * @param channelId the id of the channel it was sent in, 0 if unknown
+ * @param userId    the id of the user that sent it
+ * @param content   the full name of the slash command, or the content of the message
+ * @param options   the arguments of the slash command, empty for messages
+ */
+public record CapturedEvent(Kind kind, long timestamp, long id, long guildId, long channelId, long userId,
+                            String content, List<Option> options) {
+
+    public enum Kind { SLASH, TEXT }
+
+    /**
+     * An argument of a slash command.
+     *
+     * @param name  the name of the option
+     * @param value its value, as discord represents it in text
+     */
+    public record Option(String name, String value) {}
+
+}
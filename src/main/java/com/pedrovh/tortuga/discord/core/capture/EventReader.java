@@ -0,0 +1,176 @@
+package com.pedrovh.tortuga.discord.core.capture;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the {@link CapturedEvent}s written by an {@link EventRecorder}, in the order they were recorded.
+ * <br>
+ * Frames that are cut short or fail their checksum are skipped up to the next recording.
+ */
+public class EventReader implements Closeable {
+
+    private static final int MAX_FRAME = EventRecorder.MAX_RECORD + 16;
+
+    private final DataInputStream in;
+    private final CRC32 crc = new CRC32();
+    private long last;
+    private long skippedFrames;
+    private long skippedBytes;
+
+    /**
+     * @param file the capture file
+     * @throws IOException if the file can't be read, or isn't a capture file
+     */
+    public EventReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        if (in.readInt() != EventRecorder.MAGIC)
+            throw new IOException(file + " is not a capture file");
+        int version = in.readUnsignedByte();
+        if (version != EventRecorder.VERSION)
+            throw new IOException("Unsupported capture version " + version + " in " + file);
+    }
+
+    /**
+     * @return the next event, or <code>null</code> at the end of the file.
+     * An event cut short at the end of the file, because the bot stopped while writing it, also ends the file,
+     * and one cut short by a later recording is skipped.
+     * @throws IOException if the file can't be read
+     */
+    @Nullable
+    public CapturedEvent read() throws IOException {
+        try {
+            while (true) {
+                in.mark(MAX_FRAME);
+                final int first = in.read();
+                if (first < 0)
+                    return null;
+                if (first == 0) {
+                    final byte[] marker = in.readNBytes(EventRecorder.SEGMENT.length - 1);
+                    if (marker.length < EventRecorder.SEGMENT.length - 1)
+                        return null;
+                    if (!Arrays.equals(marker, 0, marker.length, EventRecorder.SEGMENT, 1, EventRecorder.SEGMENT.length)) {
+                        resync();
+                        continue;
+                    }
+                    last = 0;
+                    continue;
+                }
+                in.reset();
+                final long length = readVarLong(in);
+                if (length <= 0 || length > EventRecorder.MAX_RECORD) {
+                    resync();
+                    continue;
+                }
+                final byte[] record = in.readNBytes((int) length);
+                final byte[] checksum = in.readNBytes(Integer.BYTES);
+                if (checksum.length < Integer.BYTES)
+                    return null;
+                crc.reset();
+                crc.update(record);
+                final CapturedEvent event = (int) crc.getValue() == ByteBuffer.wrap(checksum).getInt() ? parse(record) : null;
+                if (event == null) {
+                    resync();
+                    continue;
+                }
+                last = event.timestamp();
+                return event;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return how many frames were skipped because they were cut short or corrupted
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /**
+     * @return how many bytes were skipped along with the {@link #getSkippedFrames() skipped frames}
+     */
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    @Nullable
+    private CapturedEvent parse(byte[] record) {
+        try {
+            final var in = new DataInputStream(new ByteArrayInputStream(record));
+            final int kind = in.readUnsignedByte();
+            if (kind < 1 || kind > CapturedEvent.Kind.values().length)
+                return null;
+
+            final long delta = readVarLong(in);
+            final long timestamp = last + ((delta >>> 1) ^ -(delta & 1));
+            final long id = in.readLong();
+            final long guild = in.readLong();
+            final long channel = in.readLong();
+            final long user = in.readLong();
+            final String content = in.readUTF();
+            final int size = (int) readVarLong(in);
+            if (size < 0 || size > record.length)
+                return null;
+            final List<CapturedEvent.Option> options = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                options.add(new CapturedEvent.Option(in.readUTF(), in.readUTF()));
+            if (in.available() > 0)
+                return null;
+            return new CapturedEvent(CapturedEvent.Kind.values()[kind - 1], timestamp, id, guild, channel, user,
+                    content, List.copyOf(options));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Skips to the {@link EventRecorder#SEGMENT} marker after the start of the current frame, where the next recording
+     * starts.
+     */
+    private void resync() throws IOException {
+        in.reset();
+        in.skipNBytes(1);
+        skippedFrames++;
+        skippedBytes++;
+        final byte[] segment = EventRecorder.SEGMENT;
+        final byte[] window = new byte[segment.length];
+        int read = 0;
+        int b;
+        while ((b = in.read()) >= 0) {
+            System.arraycopy(window, 1, window, 0, window.length - 1);
+            window[window.length - 1] = (byte) b;
+            if (++read >= segment.length && Arrays.equals(window, segment)) {
+                skippedBytes += read - segment.length;
+                last = 0;
+                return;
+            }
+        }
+        skippedBytes += read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Corrupted capture file, malformed number");
+    }
+
+}
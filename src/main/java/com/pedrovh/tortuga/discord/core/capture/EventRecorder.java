@@ -0,0 +1,201 @@
+package com.pedrovh.tortuga.discord.core.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Appends {@link CapturedEvent}s to a file, to be read by the {@link EventReader}.
+ * <br>
+ * The file starts with a header, <code>TCAP</code> and the format version, followed by the events, each framed as
+ * a varint length, the record and its CRC-32:
+ * <pre>
+ * kind       byte
+ * timestamp  zigzag varint, microseconds since the previous event, or since the epoch for the first event of a recording
+ * ids        4 longs: id, guild, channel and user
+ * content    modified UTF-8
+ * options    varint count, then name and value of each, in modified UTF-8
+ * </pre>
+ * Every recording, each time the file is opened, starts with the {@link #SEGMENT} marker, and its first event has a
+ * full timestamp. If the bot stopped while writing an event, the next recording is appended after the partial event,
+ * so the {@link EventReader} skips to the next marker when a frame is cut short or fails its checksum.
+ * <br>
+ * Events are buffered in memory and flushed every second, so recording doesn't wait for the disk.
+ * A lock is used instead of a monitor, so virtual threads recording events are never pinned.
+ */
+public class EventRecorder implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventRecorder.class);
+    static final int MAGIC = 0x54434150;
+    static final byte VERSION = 2;
+    /**
+     * Starts every recording. Frames never start with a <code>0</code> byte, since their length is positive.
+     */
+    static final byte[] SEGMENT = {0, (byte) 0xFF, 'T', 'C', 'A', 'P', '-', 'S', 'E', 'G', 'M', 'E', 'N', 'T', (byte) 0xFF, 0};
+    /**
+     * Largest record the {@link EventReader} accepts, anything larger is treated as corruption.
+     */
+    static final int MAX_RECORD = 1 << 20;
+
+    private static final class Flusher {
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "tortuga-capture");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final Path file;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(buffer);
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledFuture<?> flush;
+    private long last;
+    private long count;
+    private boolean closed;
+
+    /**
+     * Opens the file to append events to it, creating it if it doesn't exist.
+     * @param file the capture file
+     * @throws IOException if the file can't be opened, or was written in another format
+     */
+    public EventRecorder(Path file) throws IOException {
+        this.file = file;
+        final boolean empty = !Files.exists(file) || Files.size(file) == 0;
+        if (!empty)
+            checkHeader(file);
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024));
+        if (empty) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+        this.flush = Flusher.SCHEDULER.scheduleWithFixedDelay(this::flush, 1, 1, TimeUnit.SECONDS);
+        LOG.info("Capturing command events to {}", file);
+    }
+
+    /**
+     * Appends the event. Errors are logged, and stop the recording.
+     * @param event the event received
+     */
+    public void record(CapturedEvent event) {
+        lock.lock();
+        try {
+            if (closed)
+                return;
+            buffer.reset();
+            final long delta = event.timestamp() - (count == 0 ? 0 : last);
+            record.writeByte(event.kind().ordinal() + 1);
+            writeVarLong(record, (delta << 1) ^ (delta >> 63));
+            record.writeLong(event.id());
+            record.writeLong(event.guildId());
+            record.writeLong(event.channelId());
+            record.writeLong(event.userId());
+            record.writeUTF(event.content());
+            writeVarLong(record, event.options().size());
+            for (var option : event.options()) {
+                record.writeUTF(option.name());
+                record.writeUTF(option.value());
+            }
+            if (buffer.size() > MAX_RECORD) {
+                LOG.warn("Not capturing event {}, it's larger than {} bytes", event.id(), MAX_RECORD);
+                return;
+            }
+
+            if (count == 0)
+                out.write(SEGMENT);
+            crc.reset();
+            crc.update(buffer.toByteArray());
+            writeVarLong(out, buffer.size());
+            buffer.writeTo(out);
+            out.writeInt((int) crc.getValue());
+            last = event.timestamp();
+            count++;
+        } catch (IOException e) {
+            LOG.error("Error capturing events to {}, stopping the capture", file, e);
+            closeQuietly();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many events were recorded since the file was opened
+     */
+    public long getCount() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush() {
+        lock.lock();
+        try {
+            if (!closed)
+                out.flush();
+        } catch (IOException e) {
+            LOG.error("Error flushing captured events to {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the events left and closes the file.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeQuietly();
+        } finally {
+            lock.unlock();
+        }
+        LOG.info("Captured {} command events to {}", count, file);
+    }
+
+    private void closeQuietly() {
+        if (closed)
+            return;
+        closed = true;
+        flush.cancel(false);
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOG.error("Error closing capture file {}", file, e);
+        }
+    }
+
+    private static void checkHeader(Path file) throws IOException {
+        try (var in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION)
+                throw new IOException(file + " is not a capture file of version " + VERSION + ", capture to another file");
+        } catch (EOFException e) {
+            throw new IOException(file + " is not a capture file", e);
+        }
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.pedrovh.tortuga.discord.core.capture;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds the events of a capture file to a {@link Sink}, keeping the time between them, divided by the speed.
+ * <br>
+ * Gaps longer than <code>maxGap</code>, like the time between two recordings appended to the same file,
+ * are shortened to it, so a replay doesn't wait for hours of silence.
+ */
+public class EventReplayer {
+
+    /**
+     * Replays the events as fast as the sink takes them.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    /**
+     * Receives the replayed events.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * @param event the event
+         * @param due   the {@link System#nanoTime()} the event was due at, which is now or a bit earlier
+         */
+        void accept(CapturedEvent event, long due);
+    }
+
+    private final double speed;
+    private final long maxGap;
+
+    /**
+     * @param speed 1 to replay the events as they were received, 10 to replay them ten times faster,
+     *              or {@link #MAX_SPEED}
+     * @param maxGap the longest wait between two events, before the speed is applied
+     * @param unit the unit of <code>maxGap</code>
+     */
+    public EventReplayer(double speed, long maxGap, TimeUnit unit) {
+        if (!(speed > 0))
+            throw new IllegalArgumentException("Speed must be positive, got " + speed);
+        this.speed = speed;
+        this.maxGap = unit.toMicros(maxGap);
+    }
+
+    /**
+     * Reads the events and hands them to the sink, in the calling thread, until the end of the file.
+     * @param reader the capture file
+     * @param sink receives each event when it's due
+     * @return how many events were replayed
+     * @throws IOException if the file can't be read
+     */
+    public long replay(EventReader reader, Sink sink) throws IOException {
+        final long start = System.nanoTime();
+        long elapsed = 0;
+        long previous = Long.MIN_VALUE;
+        long count = 0;
+        CapturedEvent event;
+        while ((event = reader.read()) != null) {
+            if (previous != Long.MIN_VALUE)
+                elapsed += Math.min(Math.max(0, event.timestamp() - previous), maxGap);
+            previous = event.timestamp();
+
+            final long due;
+            if (speed == MAX_SPEED) {
+                due = System.nanoTime();
+            } else {
+                due = start + (long) (TimeUnit.MICROSECONDS.toNanos(elapsed) / speed);
+                waitUntil(due);
+            }
+            sink.accept(event, due);
+            count++;
+        }
+        return count;
+    }
+
+    private static void waitUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0)
+            LockSupport.parkNanos(remaining);
+    }
+
+}
@@ -1,16 +1,20 @@
 package com.pedrovh.tortuga.discord.core.command;
 
 import com.pedrovh.tortuga.discord.core.DiscordResource;
+import com.pedrovh.tortuga.discord.core.command.slash.BaseSlashCommandHandler;
 import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.BaseTextCommandHandler;
 import com.pedrovh.tortuga.discord.core.command.text.TextCommandHandler;
-import org.reflections.Reflections;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandRouter;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import com.pedrovh.tortuga.discord.core.registry.ComponentRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static com.pedrovh.tortuga.discord.core.DiscordProperties.BASE_PACKAGE;
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_TEXT_IGNORE_CASE;
 import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_TEXT_PREFIX;
 
 /**
@@ -21,17 +25,22 @@ import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_TEXT_PR
 public class BotCommandLoader {
 
     private static final Logger LOG = LoggerFactory.getLogger(BotCommandLoader.class);
-    private static final Reflections REFLECTIONS = new Reflections(DiscordResource.get(BASE_PACKAGE));
     private static final Map<String, Class<? extends SlashCommandHandler>> SLASH_HANDLERS = new ConcurrentHashMap<>();
     private static final Map<String, Class<? extends TextCommandHandler>> TEXT_HANDLERS = new ConcurrentHashMap<>();
+    private static final Map<String, Class<? extends TextCommandHandler>> TEXT_ALIASES = new ConcurrentHashMap<>();
+    private static final TextCommandRouter TEXT_ROUTER = new TextCommandRouter(DiscordResource.getBoolean(COMMAND_TEXT_IGNORE_CASE, false));
     private static final Map<String, Command> COMMANDS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Lifecycle> LIFECYCLES = new ConcurrentHashMap<>();
 
     static {
         LOG.debug("Populating command handlers cache...");
 
-        REFLECTIONS.getTypesAnnotatedWith(Command.class).forEach(handler -> {
+        ComponentRegistry.getInstance().getCommands().forEach(handler -> {
             var command = handler.getAnnotation(Command.class);
             COMMANDS.put(command.name(), command);
+            LIFECYCLES.put(handler, resolveLifecycle(handler, command));
+
+            resolveFactory(handler);
 
             if (SlashCommandHandler.class.isAssignableFrom(handler)) {
                 LOG.debug("Assigning {} to handle /{}", handler.getName(), command.name());
@@ -39,7 +48,14 @@ public class BotCommandLoader {
             }
             if (TextCommandHandler.class.isAssignableFrom(handler)) {
                 LOG.debug("Assigning {} to handle {}{}", handler.getName(), DiscordResource.get(COMMAND_TEXT_PREFIX,""), command.name());
-                TEXT_HANDLERS.put(command.name(), handler.asSubclass(TextCommandHandler.class));
+                var textHandler = handler.asSubclass(TextCommandHandler.class);
+                TEXT_HANDLERS.put(command.name(), textHandler);
+                TEXT_ROUTER.add(command.name(), command.name(), textHandler);
+                for (String alias : command.aliases()) {
+                    LOG.debug("Assigning {} to handle alias {}{}", handler.getName(), DiscordResource.get(COMMAND_TEXT_PREFIX,""), alias);
+                    TEXT_ALIASES.put(alias, textHandler);
+                    TEXT_ROUTER.add(alias, command.name(), textHandler);
+                }
             }
         });
         LOG.info("Successfully loaded command handlers");
@@ -60,11 +76,49 @@ public class BotCommandLoader {
     }
 
     public static Class<? extends TextCommandHandler> getHandlerForText(String command) {
-        return TEXT_HANDLERS.get(command);
+        var handler = TEXT_HANDLERS.get(command);
+        return handler != null ? handler : TEXT_ALIASES.get(command);
+    }
+
+    /**
+     * @return the router of text commands, including their aliases
+     */
+    public static TextCommandRouter getTextRouter() {
+        return TEXT_ROUTER;
     }
 
     public static Collection<Command> getCommands() {
         return COMMANDS.values();
     }
 
+    /**
+     * @param handler the handler class
+     * @return the effective {@link Lifecycle} of the handler, {@link Lifecycle#PROTOTYPE} if it's not a known handler
+     */
+    public static Lifecycle getLifecycle(Class<?> handler) {
+        return LIFECYCLES.getOrDefault(handler, Lifecycle.PROTOTYPE);
+    }
+
+    /**
+     * Resolves the {@link ComponentFactory} supplier of the handler once, so instantiating it while dispatching
+     * events doesn't go through reflection.
+     */
+    private static void resolveFactory(Class<?> handler) {
+        try {
+            ComponentFactory.supplierOf(handler);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("{} can't be instantiated by the default factory: {}", handler.getName(), e.getMessage());
+        }
+    }
+
+    private static Lifecycle resolveLifecycle(Class<?> handler, Command command) {
+        if (command.lifecycle() == Lifecycle.SINGLETON &&
+                (BaseSlashCommandHandler.class.isAssignableFrom(handler) || BaseTextCommandHandler.class.isAssignableFrom(handler))) {
+            LOG.warn("{} keeps request specific state and can't be a {}, using {} instead",
+                    handler.getName(), Lifecycle.SINGLETON, Lifecycle.PROTOTYPE);
+            return Lifecycle.PROTOTYPE;
+        }
+        return command.lifecycle();
+    }
+
 }
@@ -0,0 +1,56 @@
+package com.pedrovh.tortuga.discord.core.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits how many invocations of a {@link Command} run at the same time, so a slow command can't take every
+ * dispatch thread.
+ * <br>
+ * Invocations over {@link #maxConcurrent()} wait, without holding a thread, in a queue of up to {@link #queue()}
+ * invocations for at most {@link #timeout()} milliseconds. Those that don't fit in the queue or time out are handled
+ * according to the {@link #policy()}.
+ *
+ * @see com.pedrovh.tortuga.discord.core.dispatch.CommandBulkhead
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    int maxConcurrent() default 1;
+
+    /**
+     * How many invocations may wait for a slot, 0 to reject them as soon as all slots are taken.
+     */
+    int queue() default 0;
+
+    /**
+     * Milliseconds an invocation may wait for a slot, 0 to wait as long as it takes.
+     * <br>
+     * By default, slash commands wait up to 2 seconds, so they're still answered within the 3 seconds discord gives
+     * them, and text commands wait as long as it takes.
+     */
+    long timeout() default -1;
+
+    /**
+     * What happens to invocations that don't fit in the queue or time out.
+     */
+    Policy policy() default Policy.REJECT;
+
+    /**
+     * Runs the handler on its own pool of {@link #maxConcurrent()} platform threads, instead of the dispatch executor.
+     */
+    boolean isolated() default false;
+
+    enum Policy {
+        /** answers with a {@link com.pedrovh.tortuga.discord.core.exception.BotBusyException} */
+        REJECT,
+        /** ignores the invocation, without answering */
+        DROP,
+        /** runs the invocation anyway, over {@link #maxConcurrent()} */
+        RUN
+    }
+
+}
@@ -14,8 +14,21 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Command {
 
+    /**
+     * The name of the command. Text commands may have multiple words, for subcommands like <code>config prefix set</code>.
+     */
     String name();
     String description();
+
+    /**
+     * Other names the text command answers to.
+     */
+    String[] aliases() default {};
     PermissionType[] permissions() default {PermissionType.SEND_MESSAGES};
+
+    /**
+     * How the handler is instantiated. Stateful handlers are always treated as {@link Lifecycle#PROTOTYPE}.
+     */
+    Lifecycle lifecycle() default Lifecycle.PROTOTYPE;
 }
 
@@ -0,0 +1,44 @@
+package com.pedrovh.tortuga.discord.core.command;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often a {@link Command} can be used. A command may have one per {@link Scope}, e.g. a limit per user and
+ * another for the whole guild.
+ * <br>
+ * Up to {@link #permits()} uses are allowed in a row, and they are recovered one at a time over {@link #period()}.
+ * Uses over the limit are answered with a {@link com.pedrovh.tortuga.discord.core.exception.CooldownException}
+ * before the handler is instantiated.
+ *
+ * @see CooldownLimiter
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(Cooldowns.class)
+public @interface Cooldown {
+
+    /**
+     * How many uses are allowed per {@link #period()}.
+     */
+    int permits() default 1;
+
+    long period() default 5;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Who shares the limit.
+     */
+    Scope scope() default Scope.USER;
+
+    enum Scope {
+        /** each user, in every guild */
+        USER,
+        /** each guild, or DM channel */
+        GUILD,
+        /** everyone */
+        GLOBAL
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.pedrovh.tortuga.discord.core.command;
+
+import com.pedrovh.tortuga.discord.core.exception.CooldownException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces the {@link Cooldown}s of the command handlers.
+ * <br>
+ * Each bucket is a token bucket kept as a single <code>long</code>, the time it will be full again (GCRA), and
+ * is updated with a compare-and-set, so acquiring never locks. Full buckets are evicted from time to time, since
+ * they are the same as a new one: they're retired first, with the same compare-and-set, so a permit taken while a
+ * bucket is evicted is never lost with it.
+ * <br>
+ * A use is only charged if every limit allows it: when one rejects it, the permits already taken from the others are
+ * given back.
+ */
+public class CooldownLimiter {
+
+    private static final int SWEEP_INTERVAL = 1024;
+    /** value of an evicted bucket, which is replaced by a new one on next use */
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private static final ClassValue<Limit[]> LIMITS = new ClassValue<>() {
+        @Override
+        protected Limit[] computeValue(Class<?> handler) {
+            Cooldown[] cooldowns = handler.getAnnotationsByType(Cooldown.class);
+            Limit[] limits = new Limit[cooldowns.length];
+            for (int i = 0; i < cooldowns.length; i++)
+                limits[i] = new Limit(cooldowns[i]);
+            return limits;
+        }
+    };
+
+    private CooldownLimiter() {}
+
+    /**
+     * Takes a permit from every {@link Cooldown} of the handler.
+     *
+     * @param handler the handler class
+     * @param userId  the id of the user that sent the command
+     * @param guildId the id of the guild or, outside of guilds, of the channel
+     * @throws CooldownException if any of the limits was reached
+     */
+    public static void acquire(Class<?> handler, long userId, long guildId) throws CooldownException {
+        acquire(handler, userId, guildId, System.nanoTime());
+    }
+
+    static void acquire(Class<?> handler, long userId, long guildId, long now) throws CooldownException {
+        final Limit[] limits = LIMITS.get(handler);
+        for (int i = 0; i < limits.length; i++) {
+            long wait = limits[i].tryAcquire(limits[i].keyOf(userId, guildId), now);
+            if (wait > 0) {
+                while (--i >= 0)
+                    limits[i].release(limits[i].keyOf(userId, guildId));
+                throw new CooldownException(TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+        }
+    }
+
+    /**
+     * Gives back the permits taken by {@link #acquire}, for a use that didn't run after all.
+     *
+     * @param handler the handler class
+     * @param userId  the id of the user that sent the command
+     * @param guildId the id of the guild or, outside of guilds, of the channel
+     */
+    public static void release(Class<?> handler, long userId, long guildId) {
+        for (Limit limit : LIMITS.get(handler))
+            limit.release(limit.keyOf(userId, guildId));
+    }
+
+    /**
+     * @param handler the handler class
+     * @return the number of buckets kept for the handler
+     */
+    public static int size(Class<?> handler) {
+        int size = 0;
+        for (Limit limit : LIMITS.get(handler))
+            size += limit.buckets.size();
+        return size;
+    }
+
+    private static final class Limit {
+        private final Cooldown.Scope scope;
+        /** time to recover a permit */
+        private final long interval;
+        /** how far ahead of now a bucket can be and still have a permit */
+        private final long tolerance;
+        private final Map<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicInteger acquisitions = new AtomicInteger();
+
+        private Limit(Cooldown cooldown) {
+            int permits = Math.max(1, cooldown.permits());
+            this.scope = cooldown.scope();
+            this.interval = Math.max(1, cooldown.unit().toNanos(cooldown.period()) / permits);
+            this.tolerance = interval * (permits - 1);
+        }
+
+        private long keyOf(long userId, long guildId) {
+            return switch (scope) {
+                case USER -> userId;
+                case GUILD -> guildId;
+                case GLOBAL -> 0L;
+            };
+        }
+
+        /**
+         * @return 0 if a permit was taken, otherwise the nanoseconds until there's one
+         */
+        private long tryAcquire(long key, long now) {
+            if ((acquisitions.incrementAndGet() & (SWEEP_INTERVAL - 1)) == 0)
+                sweep(now);
+
+            while (true) {
+                AtomicLong bucket = buckets.get(key);
+                if (bucket == null) {
+                    AtomicLong created = new AtomicLong(now);
+                    bucket = buckets.putIfAbsent(key, created);
+                    if (bucket == null) bucket = created;
+                }
+                while (true) {
+                    long full = bucket.get();
+                    if (full == RETIRED) {
+                        // evicted meanwhile, take the permit from its replacement
+                        buckets.remove(key, bucket);
+                        break;
+                    }
+                    long start = full - now > 0 ? full : now;
+                    long wait = start - tolerance - now;
+                    if (wait > 0)
+                        return wait;
+                    if (bucket.compareAndSet(full, start + interval))
+                        return 0;
+                }
+            }
+        }
+
+        /**
+         * Evicts the full buckets. A bucket is only removed if it's retired before a permit is taken from it.
+         */
+        private void sweep(long now) {
+            for (Map.Entry<Long, AtomicLong> entry : buckets.entrySet()) {
+                AtomicLong bucket = entry.getValue();
+                long full = bucket.get();
+                if (full != RETIRED && full - now <= 0 && bucket.compareAndSet(full, RETIRED))
+                    buckets.remove(entry.getKey(), bucket);
+            }
+        }
+
+        private void release(long key) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null)
+                return;
+            while (true) {
+                long full = bucket.get();
+                // a retired bucket was already full
+                if (full == RETIRED || bucket.compareAndSet(full, full - interval))
+                    return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.pedrovh.tortuga.discord.core.command;
+
+/**
+ * Defines how instances of a {@link Command} handler are created by the listeners.
+ */
+public enum Lifecycle {
+
+    /**
+     * A new instance is created for every event. Required by handlers that keep request specific state in fields,
+     * such as the children of {@link com.pedrovh.tortuga.discord.core.command.slash.BaseSlashCommandHandler} and
+     * {@link com.pedrovh.tortuga.discord.core.command.text.BaseTextCommandHandler}.
+     */
+    PROTOTYPE,
+
+    /**
+     * A single instance serves every event, concurrently. The handler must be stateless, receiving everything it needs
+     * from the per-invocation context, like the children of
+     * {@link com.pedrovh.tortuga.discord.core.command.slash.StatelessSlashCommandHandler} and
+     * {@link com.pedrovh.tortuga.discord.core.command.text.StatelessTextCommandHandler}.
+     */
+    SINGLETON
+
+}
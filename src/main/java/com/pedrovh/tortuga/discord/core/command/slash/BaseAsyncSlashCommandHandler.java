@@ -0,0 +1,35 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Same as {@link BaseSlashCommandHandler}, but the request is handled asynchronously by {@link #handleAsync()}.
+ */
+@SuppressWarnings("unused")
+public abstract class BaseAsyncSlashCommandHandler extends BaseSlashCommandHandler implements AsyncSlashCommandHandler {
+
+    @Override
+    public CompletionStage<?> handleAsync(SlashCommandCreateEvent event) throws BotException {
+        load(event);
+        return handleAsync();
+    }
+
+    protected abstract CompletionStage<?> handleAsync() throws BotException;
+
+    @Override
+    protected final void handle() throws BotException {
+        try {
+            final CompletionStage<?> stage = handleAsync();
+            // a null stage is taken as already completed, like the listeners do
+            if (stage != null)
+                stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw BotException.of(e);
+        }
+    }
+
+}
@@ -9,15 +9,20 @@ import org.javacord.api.interaction.SlashCommandInteraction;
 
 /**
  * Abstraction implementation of {@link SlashCommandHandler}.
- * Contains useful fields extracted from the event.
+ * Contains useful fields extracted from the event, copied from its {@link SlashCommandContext}.
+ * <br>
+ * Instances are stateful, so they're always created per event ({@link com.pedrovh.tortuga.discord.core.command.Lifecycle#PROTOTYPE}).
+ * Extend {@link StatelessSlashCommandHandler} to have a single instance serving concurrent calls.
  */
 public abstract class BaseSlashCommandHandler implements SlashCommandHandler {
 
+    protected SlashCommandContext context;
     protected SlashCommandCreateEvent event;
     protected SlashCommandInteraction interaction;
     protected DiscordApi api;
     protected TextChannel channel;
     protected User user;
+    protected InteractionResponder responder;
 
     @Override
     public void handle(SlashCommandCreateEvent event) throws BotException {
@@ -27,11 +32,13 @@ public abstract class BaseSlashCommandHandler implements SlashCommandHandler {
 
     @SuppressWarnings("java:S1130")
     protected void load(SlashCommandCreateEvent event) throws BotException {
-        this.event = event;
-        this.api = event.getApi();
-        this.interaction = event.getSlashCommandInteraction();
-        this.channel = interaction.getChannel().orElseThrow();
-        this.user = interaction.getUser();
+        this.context = SlashCommandContext.of(event);
+        this.event = context.event();
+        this.api = context.api();
+        this.interaction = context.interaction();
+        this.channel = context.channel();
+        this.user = context.user();
+        this.responder = context.responder();
     }
 
     protected abstract void handle() throws BotException;
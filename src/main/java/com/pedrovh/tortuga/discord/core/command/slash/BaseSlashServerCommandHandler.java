@@ -1,7 +1,6 @@
 package com.pedrovh.tortuga.discord.core.command.slash;
 
 import com.pedrovh.tortuga.discord.core.exception.BotException;
-import com.pedrovh.tortuga.discord.core.exception.ServerRequiredException;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.event.interaction.SlashCommandCreateEvent;
 
@@ -13,6 +12,6 @@ public abstract class BaseSlashServerCommandHandler extends BaseSlashCommandHand
     @Override
     protected void load(SlashCommandCreateEvent event) throws BotException {
         super.load(event);
-        this.server = interaction.getServer().orElseThrow(ServerRequiredException::new);
+        this.server = context.requireServer();
     }
 }
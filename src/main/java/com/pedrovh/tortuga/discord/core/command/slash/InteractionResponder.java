@@ -0,0 +1,201 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import com.pedrovh.tortuga.discord.core.jfr.CommandEvent;
+import com.pedrovh.tortuga.discord.core.jfr.CommandRespondedEvent;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import org.javacord.api.entity.DiscordEntity;
+import org.javacord.api.entity.message.embed.EmbedBuilder;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.callback.InteractionMessageBuilderBase;
+import org.javacord.api.interaction.callback.InteractionOriginalResponseUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Responds to a {@link SlashCommandInteraction} through the right path, whether it was already deferred or not:
+ * <ul>
+ *     <li>the first response is sent as an immediate response, or as an update of the original response if the
+ *     interaction was deferred</li>
+ *     <li>any further response is sent as a followup message, once the first response was sent, since discord only
+ *     accepts followup messages after it</li>
+ * </ul>
+ * The listener defers the interaction automatically when it isn't responded within
+ * <code>command.slash.defer.threshold</code> milliseconds of being received, so handlers that respond through this
+ * class don't need to know whether that happened.
+ */
+public class InteractionResponder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InteractionResponder.class);
+    private static final Map<Long, InteractionResponder> RESPONDERS = new ConcurrentHashMap<>();
+
+    private enum State { OPEN, DEFERRED, RESPONDED }
+
+    private final SlashCommandInteraction interaction;
+    private State state = State.OPEN;
+    private CompletableFuture<InteractionOriginalResponseUpdater> original;
+    private CompletableFuture<Void> initial;
+
+    private InteractionResponder(SlashCommandInteraction interaction) {
+        this.interaction = interaction;
+    }
+
+    private static final class Deferrals {
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "tortuga-deferrals");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param interaction the interaction
+     * @return the responder of the interaction, shared by everyone handling it while it's being handled
+     */
+    public static InteractionResponder of(SlashCommandInteraction interaction) {
+        return RESPONDERS.computeIfAbsent(interaction.getId(), id -> new InteractionResponder(interaction));
+    }
+
+    /**
+     * Forgets the responder of the interaction. Anyone still holding it can keep using it.
+     * @param interaction the interaction that was handled
+     */
+    public static void release(SlashCommandInteraction interaction) {
+        RESPONDERS.remove(interaction.getId());
+    }
+
+    /**
+     * Builds and sends a response.
+     * @param message fills the message to send
+     * @return a future completed when discord receives the response
+     */
+    public CompletableFuture<Void> respond(Consumer<InteractionMessageBuilderBase<?>> message) {
+        return timed(send(message));
+    }
+
+    private CompletableFuture<Void> send(Consumer<InteractionMessageBuilderBase<?>> message) {
+        // only the transition is synchronized, requests are sent outside the monitor so virtual threads aren't pinned
+        final State previous;
+        final CompletableFuture<InteractionOriginalResponseUpdater> deferred;
+        final CompletableFuture<Void> first;
+        synchronized (this) {
+            previous = state;
+            deferred = original;
+            if (previous != State.RESPONDED)
+                initial = new CompletableFuture<>();
+            first = initial;
+            state = State.RESPONDED;
+        }
+        switch (previous) {
+            case OPEN -> {
+                var responder = interaction.createImmediateResponder();
+                message.accept(responder);
+                return complete(first, responder.respond());
+            }
+            case DEFERRED -> {
+                return complete(first, deferred.thenCompose(updater -> {
+                    message.accept(updater);
+                    return updater.update();
+                }));
+            }
+            default -> {
+                // followups are only accepted once the first response exists, even if it failed they're still tried
+                return first.handle((v, e) -> null).thenCompose(v -> {
+                    var followup = interaction.createFollowupMessageBuilder();
+                    message.accept(followup);
+                    return followup.send();
+                }).thenAccept(m -> {});
+            }
+        }
+    }
+
+    private static CompletableFuture<Void> complete(CompletableFuture<Void> first, CompletableFuture<?> response) {
+        response.whenComplete((r, e) -> {
+            if (e != null) first.completeExceptionally(e);
+            else first.complete(null);
+        });
+        return first.copy();
+    }
+
+    public CompletableFuture<Void> respond(EmbedBuilder... embeds) {
+        return respond(message -> message.addEmbeds(embeds));
+    }
+
+    public CompletableFuture<Void> respond(String content) {
+        return respond(message -> message.setContent(content));
+    }
+
+    /**
+     * Acknowledges the interaction, so a response can be sent later.
+     * @return true if the interaction was deferred, false if it was already responded or deferred
+     */
+    public boolean defer() {
+        final CompletableFuture<InteractionOriginalResponseUpdater> deferred;
+        synchronized (this) {
+            if (state != State.OPEN)
+                return false;
+            state = State.DEFERRED;
+            original = deferred = new CompletableFuture<>();
+        }
+        timed(interaction.respondLater()).whenComplete((updater, e) -> {
+            if (e != null) deferred.completeExceptionally(e);
+            else deferred.complete(updater);
+        });
+        return true;
+    }
+
+    /**
+     * Records the time discord takes to complete the request in <code>tortuga.command.rest</code>
+     * and as a {@link CommandRespondedEvent}.
+     */
+    private <T> CompletableFuture<T> timed(CompletableFuture<T> request) {
+        final long start = System.nanoTime();
+        final var respondedEvent = new CommandRespondedEvent();
+        respondedEvent.begin();
+        final var metrics = MetricsRegistry.getInstance().command(MetricsRegistry.SLASH, interaction.getCommandName());
+        return request.whenComplete((r, e) -> {
+            metrics.rest().record(System.nanoTime() - start);
+            respondedEvent.commit(MetricsRegistry.SLASH, interaction.getCommandName(),
+                    interaction.getServer().map(DiscordEntity::getId).orElse(0L),
+                    e == null ? CommandEvent.SUCCESS : CommandEvent.ERROR);
+        });
+    }
+
+    /**
+     * Schedules {@link #defer()}.
+     * @param millis time to wait before deferring
+     * @return the scheduled deferral, cancel it once the handler finishes
+     */
+    public ScheduledFuture<?> deferAfter(long millis) {
+        return deferAfter(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules {@link #defer()}, or defers right away if the delay isn't positive.
+     * @param delay time to wait before deferring
+     * @param unit the unit of the delay
+     * @return the scheduled deferral, cancel it once the handler finishes, or <code>null</code> if it was deferred right away
+     */
+    public ScheduledFuture<?> deferAfter(long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            if (defer())
+                LOG.debug("Deferred response of '{}' right away, it waited too long to start", interaction.getFullCommandName());
+            return null;
+        }
+        return Deferrals.SCHEDULER.schedule(() -> {
+            if (defer())
+                LOG.debug("Deferred response of '{}' after {}ms", interaction.getFullCommandName(), unit.toMillis(delay));
+        }, delay, unit);
+    }
+
+    /**
+     * @return true if a response was already sent or the interaction was deferred
+     */
+    public synchronized boolean isAcknowledged() {
+        return state != State.OPEN;
+    }
+
+}
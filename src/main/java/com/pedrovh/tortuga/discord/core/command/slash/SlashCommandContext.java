@@ -0,0 +1,69 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import com.pedrovh.tortuga.discord.core.exception.ServerRequiredException;
+import com.pedrovh.tortuga.discord.core.guild.GuildSettingsService;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.interaction.SlashCommandInteraction;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Immutable view of a {@link SlashCommandCreateEvent}, built once per invocation.
+ * Safe to be shared with handlers that serve concurrent calls.
+ *
+ * @param event the slash command event
+ * @param interaction the interaction of the event
+ * @param api the api that received the event
+ * @param channel the channel the command was sent in
+ * @param user the user that sent the command
+ * @param server the server the command was sent in, <code>null</code> in DMs
+ * @param responder responds to the interaction, whether it was deferred or not
+ */
+public record SlashCommandContext(SlashCommandCreateEvent event,
+                                  SlashCommandInteraction interaction,
+                                  DiscordApi api,
+                                  TextChannel channel,
+                                  User user,
+                                  @Nullable Server server,
+                                  InteractionResponder responder) {
+
+    public static SlashCommandContext of(SlashCommandCreateEvent event) {
+        final var interaction = event.getSlashCommandInteraction();
+        return new SlashCommandContext(
+                event,
+                interaction,
+                event.getApi(),
+                interaction.getChannel().orElseThrow(),
+                interaction.getUser(),
+                interaction.getServer().orElse(null),
+                InteractionResponder.of(interaction));
+    }
+
+    public Optional<Server> getServer() {
+        return Optional.ofNullable(server);
+    }
+
+    /**
+     * @return the locale of the server the command was sent in, or the default one
+     */
+    public Locale getLocale() {
+        return GuildSettingsService.getInstance().getLocale(server != null ? server.getId() : 0L);
+    }
+
+    /**
+     * @return the server the command was sent in
+     * @throws ServerRequiredException if the command was not sent in a server
+     */
+    public Server requireServer() throws ServerRequiredException {
+        if (server == null)
+            throw new ServerRequiredException();
+        return server;
+    }
+
+}
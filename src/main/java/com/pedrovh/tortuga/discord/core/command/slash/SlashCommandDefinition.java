@@ -0,0 +1,77 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import com.pedrovh.tortuga.discord.core.command.Command;
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.interaction.SlashCommand;
+import org.javacord.api.interaction.SlashCommandBuilder;
+import org.javacord.api.interaction.SlashCommandOption;
+
+import javax.annotation.Nullable;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * What discord knows of a slash command, either defined by a {@link SlashCommandHandler} or already registered.
+ *
+ * @param name         the name of the command
+ * @param description  its description
+ * @param enabledInDMs whether it can be used in direct messages
+ * @param nsfw         whether it is NSFW
+ * @param permissions  the permissions required to use it by default, <code>null</code> if anyone can
+ * @param options      its options, in order
+ */
+public record SlashCommandDefinition(String name,
+                                     String description,
+                                     boolean enabledInDMs,
+                                     boolean nsfw,
+                                     @Nullable EnumSet<PermissionType> permissions,
+                                     List<SlashCommandOption> options) {
+
+    /**
+     * @param command the annotation of the handler
+     * @param handler an instance of the handler
+     * @return the definition of the handler
+     */
+    public static SlashCommandDefinition of(Command command, SlashCommandHandler handler) {
+        final var permissions = EnumSet.noneOf(PermissionType.class);
+        permissions.addAll(List.of(command.permissions()));
+        final var options = handler.getOptions();
+        return new SlashCommandDefinition(
+                command.name(),
+                command.description(),
+                handler.enabledInDMs(),
+                handler.nsfw(),
+                permissions,
+                options != null ? List.copyOf(options) : List.of());
+    }
+
+    /**
+     * @param command a registered command
+     * @return its definition
+     */
+    public static SlashCommandDefinition of(SlashCommand command) {
+        return new SlashCommandDefinition(
+                command.getName(),
+                command.getDescription(),
+                command.isEnabledInDms(),
+                command.isNsfw(),
+                command.getDefaultRequiredPermissions().orElse(null),
+                command.getOptions());
+    }
+
+    /**
+     * @return a builder to register the command
+     */
+    public SlashCommandBuilder toBuilder() {
+        final var builder = new SlashCommandBuilder()
+                .setName(name)
+                .setDescription(description)
+                .setEnabledInDms(enabledInDMs)
+                .setNsfw(nsfw)
+                .setOptions(options);
+        if (permissions != null)
+            builder.setDefaultEnabledForPermissions(permissions.toArray(PermissionType[]::new));
+        return builder;
+    }
+
+}
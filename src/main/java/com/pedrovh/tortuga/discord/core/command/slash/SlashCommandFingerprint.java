@@ -0,0 +1,108 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import org.javacord.api.entity.channel.ChannelType;
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.interaction.DiscordLocale;
+import org.javacord.api.interaction.SlashCommandOption;
+import org.javacord.api.interaction.SlashCommandOptionChoice;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A SHA-256 hash of a set of {@link SlashCommandDefinition}s, equal for sets discord would register the same way,
+ * so commands are only overwritten when something changed.
+ * <br>
+ * The hash covers the name, description, permissions, NSFW flag and options of each command, in a canonical form:
+ * commands are sorted by name, localizations by locale and channel types by id, while the options keep their order,
+ * as discord shows them in that order. Whether a command is enabled in DMs is left out of the hash of server commands,
+ * since discord ignores it for them.
+ */
+public final class SlashCommandFingerprint {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private SlashCommandFingerprint() {}
+
+    /**
+     * @param commands the commands
+     * @param server   true if they are registered in a server, false if globally
+     * @return the hex encoded SHA-256 of the commands
+     */
+    public static String of(Collection<SlashCommandDefinition> commands, boolean server) {
+        final var canonical = new StringBuilder();
+        commands.stream()
+                .sorted(Comparator.comparing(SlashCommandDefinition::name))
+                .forEach(command -> {
+                    field(canonical, command.name());
+                    field(canonical, command.description());
+                    field(canonical, server || command.enabledInDMs());
+                    field(canonical, command.nsfw());
+                    field(canonical, command.permissions() != null ? mask(command.permissions()) : -1L);
+                    options(canonical, command.options());
+                });
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void options(StringBuilder canonical, List<SlashCommandOption> options) {
+        canonical.append('[');
+        for (var option : options) {
+            field(canonical, option.getType().getValue());
+            field(canonical, option.getName());
+            localizations(canonical, option.getNameLocalizations());
+            field(canonical, option.getDescription());
+            localizations(canonical, option.getDescriptionLocalizations());
+            field(canonical, option.isRequired());
+            field(canonical, option.isAutocompletable());
+            canonical.append('[');
+            for (SlashCommandOptionChoice choice : option.getChoices()) {
+                field(canonical, choice.getName());
+                localizations(canonical, choice.getNameLocalizations());
+                field(canonical, choice.getStringValue().orElse(null));
+                field(canonical, choice.getLongValue().orElse(null));
+            }
+            canonical.append(']');
+            field(canonical, option.getChannelTypes().stream()
+                    .map(ChannelType::getId)
+                    .sorted()
+                    .toList());
+            field(canonical, option.getLongMinValue().orElse(null));
+            field(canonical, option.getLongMaxValue().orElse(null));
+            field(canonical, option.getDecimalMinValue().orElse(null));
+            field(canonical, option.getDecimalMaxValue().orElse(null));
+            field(canonical, option.getMinLength().orElse(null));
+            field(canonical, option.getMaxLength().orElse(null));
+            options(canonical, option.getOptions());
+        }
+        canonical.append(']');
+    }
+
+    private static void localizations(StringBuilder canonical, Map<DiscordLocale, String> localizations) {
+        final Map<String, String> sorted = new TreeMap<>();
+        localizations.forEach((locale, value) -> sorted.put(locale.getLocaleCode(), value));
+        field(canonical, sorted);
+    }
+
+    private static long mask(Set<PermissionType> permissions) {
+        long mask = 0;
+        for (var permission : permissions)
+            mask |= permission.getValue();
+        return mask;
+    }
+
+    /**
+     * Appends the value prefixed by its length, so no two different sequences of values have the same form.
+     */
+    private static void field(StringBuilder canonical, Object value) {
+        final String text = String.valueOf(value);
+        canonical.append(text.length()).append(':').append(text).append(';');
+    }
+
+}
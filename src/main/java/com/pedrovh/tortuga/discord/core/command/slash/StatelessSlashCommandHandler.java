@@ -0,0 +1,31 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import com.pedrovh.tortuga.discord.core.command.Lifecycle;
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+
+/**
+ * Implementation of {@link SlashCommandHandler} that keeps no request specific state.
+ * Everything extracted from the event is handed over through an immutable {@link SlashCommandContext},
+ * so a single instance can serve concurrent calls when used with {@link Lifecycle#SINGLETON}.
+ */
+public abstract class StatelessSlashCommandHandler implements SlashCommandHandler {
+
+    @Override
+    public final void handle(SlashCommandCreateEvent event) throws BotException {
+        handle(SlashCommandContext.of(event));
+    }
+
+    protected abstract void handle(SlashCommandContext context) throws BotException;
+
+    @Override
+    public boolean nsfw() {
+        return false;
+    }
+
+    @Override
+    public boolean enabledInDMs() {
+        return false;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.pedrovh.tortuga.discord.core.command.text;
+
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import org.javacord.api.event.message.MessageCreateEvent;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous {@link TextCommandHandler}. The listener doesn't wait for the returned stage, so no thread is blocked
+ * while the handler awaits Javacord REST futures. Failures of the stage are handled like exceptions thrown by
+ * {@link TextCommandHandler#handle(MessageCreateEvent)}.
+ */
+public interface AsyncTextCommandHandler extends TextCommandHandler {
+
+    CompletionStage<?> handleAsync(MessageCreateEvent event) throws BotException;
+
+    /**
+     * Handles the event and waits for it to complete, a <code>null</code> stage counting as completed.
+     */
+    @Override
+    default void handle(MessageCreateEvent event) throws BotException {
+        try {
+            final CompletionStage<?> stage = handleAsync(event);
+            if (stage != null)
+                stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw BotException.of(e);
+        }
+    }
+
+}
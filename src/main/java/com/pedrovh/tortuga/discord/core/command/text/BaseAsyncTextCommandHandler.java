@@ -0,0 +1,35 @@
+package com.pedrovh.tortuga.discord.core.command.text;
+
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import org.javacord.api.event.message.MessageCreateEvent;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Same as {@link BaseTextCommandHandler}, but the request is handled asynchronously by {@link #handleAsync()}.
+ */
+@SuppressWarnings("unused")
+public abstract class BaseAsyncTextCommandHandler extends BaseTextCommandHandler implements AsyncTextCommandHandler {
+
+    @Override
+    public CompletionStage<?> handleAsync(MessageCreateEvent event) throws BotException {
+        load(event);
+        return handleAsync();
+    }
+
+    protected abstract CompletionStage<?> handleAsync() throws BotException;
+
+    @Override
+    protected final void handle() throws BotException {
+        try {
+            final CompletionStage<?> stage = handleAsync();
+            // a null stage is taken as already completed, like the listeners do
+            if (stage != null)
+                stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw BotException.of(e);
+        }
+    }
+
+}
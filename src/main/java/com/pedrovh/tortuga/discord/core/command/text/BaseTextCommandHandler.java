@@ -1,6 +1,5 @@
 package com.pedrovh.tortuga.discord.core.command.text;
 
-import com.pedrovh.tortuga.discord.core.DiscordResource;
 import com.pedrovh.tortuga.discord.core.exception.BotException;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.channel.TextChannel;
@@ -10,14 +9,16 @@ import org.javacord.api.event.message.MessageCreateEvent;
 
 import java.util.List;
 
-import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_TEXT_PREFIX;
-
 /**
  * Abstraction implementation of {@link TextCommandHandler}.
- * Contains useful fields extracted from the event.
+ * Contains useful fields extracted from the event, copied from its {@link TextCommandContext}.
+ * <br>
+ * Instances are stateful, so they're always created per event ({@link com.pedrovh.tortuga.discord.core.command.Lifecycle#PROTOTYPE}).
+ * Extend {@link StatelessTextCommandHandler} to have a single instance serving concurrent calls.
  */
 public abstract class BaseTextCommandHandler implements TextCommandHandler {
 
+    protected TextCommandContext context;
     protected MessageCreateEvent event;
     protected DiscordApi api;
     protected TextChannel channel;
@@ -33,15 +34,13 @@ public abstract class BaseTextCommandHandler implements TextCommandHandler {
 
     @SuppressWarnings("java:S1130")
     protected void load(MessageCreateEvent event) throws BotException {
-        this.event = event;
-        this.api = event.getApi();
-        this.channel = event.getChannel();
-        this.user = event.getMessageAuthor();
-        this.message = event.getMessage();
-
-        String prefix = DiscordResource.get(COMMAND_TEXT_PREFIX);
-        String content = prefix != null ? message.getContent().substring(prefix.length()) : message.getContent();
-        this.args = List.of(content.split(" "));
+        this.context = TextCommandContext.of(event);
+        this.event = context.event();
+        this.api = context.api();
+        this.channel = context.channel();
+        this.user = context.user();
+        this.message = context.message();
+        this.args = context.args();
     }
 
     protected abstract void handle() throws BotException;
@@ -0,0 +1,26 @@
+package com.pedrovh.tortuga.discord.core.command.text;
+
+import com.pedrovh.tortuga.discord.core.command.Lifecycle;
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import org.javacord.api.event.message.MessageCreateEvent;
+
+/**
+ * Implementation of {@link TextCommandHandler} that keeps no request specific state.
+ * Everything extracted from the event is handed over through an immutable {@link TextCommandContext},
+ * so a single instance can serve concurrent calls when used with {@link Lifecycle#SINGLETON}.
+ */
+public abstract class StatelessTextCommandHandler implements TextCommandHandler {
+
+    @Override
+    public final void handle(MessageCreateEvent event) throws BotException {
+        handle(TextCommandContext.of(event));
+    }
+
+    protected abstract void handle(TextCommandContext context) throws BotException;
+
+    @Override
+    public boolean enabledInDMs() {
+        return false;
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.pedrovh.tortuga.discord.core.command.text;
+
+import com.pedrovh.tortuga.discord.core.command.BotCommandLoader;
+import com.pedrovh.tortuga.discord.core.exception.ServerRequiredException;
+import com.pedrovh.tortuga.discord.core.guild.GuildSettingsService;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.message.MessageAuthor;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.event.message.MessageCreateEvent;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Immutable view of a {@link MessageCreateEvent} interpreted as a text command, built once per invocation.
+ * Safe to be shared with handlers that serve concurrent calls.
+ * <br>
+ * The listener builds it with the prefix and route it already resolved, and makes it {@link #current() current}
+ * while the handler is called, so {@link #of(MessageCreateEvent)} hands it over instead of resolving them again.
+ *
+ * @param event the message create event
+ * @param api the api that received the event
+ * @param channel the channel the message was sent in
+ * @param user the author of the message
+ * @param message the message
+ * @param args the content of the message without the prefix, split by spaces. The first elements are the command
+ * @param server the server the message was sent in, <code>null</code> in DMs
+ * @param command the name of the command, as registered in {@link com.pedrovh.tortuga.discord.core.command.Command#name()}
+ * @param argumentsOffset index of the message content where the arguments start, after the command
+ */
+public record TextCommandContext(MessageCreateEvent event,
+                                 DiscordApi api,
+                                 TextChannel channel,
+                                 MessageAuthor user,
+                                 Message message,
+                                 List<String> args,
+                                 @Nullable Server server,
+                                 String command,
+                                 int argumentsOffset) {
+
+    private static final ThreadLocal<TextCommandContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Makes a context current until the returned scope is closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * @param event the message create event
+     * @return the context the listener built for the event, if it's being handled in this thread, or one built with
+     * the prefix of the guild in {@link GuildSettingsService} otherwise
+     */
+    public static TextCommandContext of(MessageCreateEvent event) {
+        final var current = CURRENT.get();
+        if (current != null && current.event() == event)
+            return current;
+        final Server server = event.getServer().orElse(null);
+        final String prefix = GuildSettingsService.getInstance().getPrefix(server != null ? server.getId() : 0L);
+        final int offset = prefix != null ? prefix.length() : 0;
+        return of(event, prefix, BotCommandLoader.getTextRouter().route(event.getMessage().getContent(), offset));
+    }
+
+    /**
+     * @param event the message create event
+     * @param prefix the prefix the message was validated with
+     * @param route the route of the message, <code>null</code> if no command matches
+     * @return the context of the event
+     */
+    public static TextCommandContext of(MessageCreateEvent event, @Nullable String prefix, @Nullable TextCommandRouter.Route route) {
+        final Message message = event.getMessage();
+        final Server server = event.getServer().orElse(null);
+        final int offset = prefix != null ? prefix.length() : 0;
+        final String content = message.getContent().substring(offset);
+
+        return new TextCommandContext(
+                event,
+                event.getApi(),
+                event.getChannel(),
+                event.getMessageAuthor(),
+                message,
+                List.of(content.split(" ")),
+                server,
+                route != null ? route.command() : firstWord(content),
+                route != null ? route.argumentsOffset() : offset);
+    }
+
+    /**
+     * @return the context being handled in this thread, or <code>null</code>
+     */
+    @Nullable
+    public static TextCommandContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the context current in this thread, restoring the previous one when the scope is closed.
+     * @param context the context, nothing changes if it's <code>null</code>
+     * @return the scope of the context
+     */
+    public static Scope open(@Nullable TextCommandContext context) {
+        if (context == null)
+            return () -> {};
+        final var previous = CURRENT.get();
+        CURRENT.set(context);
+        return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+    }
+
+    /**
+     * @return the content of the message after the command, without leading spaces
+     */
+    public String arguments() {
+        String content = message.getContent();
+        return argumentsOffset >= content.length() ? "" : content.substring(argumentsOffset);
+    }
+
+    private static String firstWord(String content) {
+        int end = content.indexOf(' ');
+        return end < 0 ? content : content.substring(0, end);
+    }
+
+    public Optional<Server> getServer() {
+        return Optional.ofNullable(server);
+    }
+
+    /**
+     * @return the locale of the server the message was sent in, or the default one
+     */
+    public Locale getLocale() {
+        return GuildSettingsService.getInstance().getLocale(server != null ? server.getId() : 0L);
+    }
+
+    /**
+     * @return the server the message was sent in
+     * @throws ServerRequiredException if the message was not sent in a server
+     */
+    public Server requireServer() throws ServerRequiredException {
+        if (server == null)
+            throw new ServerRequiredException();
+        return server;
+    }
+
+}
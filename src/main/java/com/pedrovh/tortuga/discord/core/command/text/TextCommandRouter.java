@@ -0,0 +1,139 @@
+package com.pedrovh.tortuga.discord.core.command.text;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Finds the {@link TextCommandHandler} of a message by walking its characters once through a trie of command names,
+ * without splitting or copying the content.
+ * <br>
+ * Names may have multiple words, for subcommands like <code>config prefix set</code>. The longest name ending at a
+ * word boundary wins, so <code>config prefix set</code> takes precedence over <code>config</code>.
+ * Any run of spaces in the message matches a single space in the name.
+ */
+public class TextCommandRouter {
+
+    /**
+     * The result of routing a message.
+     * @param handler the handler of the command
+     * @param command the name the command was registered with
+     * @param argumentsOffset index of the content where the arguments start, after the command and its trailing spaces
+     */
+    public record Route(Class<? extends TextCommandHandler> handler, String command, int argumentsOffset) {}
+
+    private final Node root = new Node();
+    private final boolean ignoreCase;
+
+    /**
+     * @param ignoreCase whether names should match regardless of case
+     */
+    public TextCommandRouter(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Registers a route. Routes should all be added before the router is published to other threads.
+     * @param name the name or alias to match
+     * @param command the name of the command
+     * @param handler the handler of the command
+     */
+    public void add(String name, String command, Class<? extends TextCommandHandler> handler) {
+        Node node = root;
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && node != root) {
+                node = node.child(' ');
+            }
+            space = false;
+            node = node.child(normalize(c));
+        }
+        if (node != root) {
+            node.handler = handler;
+            node.command = command;
+        }
+    }
+
+    /**
+     * @param content the message content
+     * @param offset index where the command starts, usually the length of the prefix
+     * @return the route of the command, or <code>null</code> if no command matches
+     */
+    @Nullable
+    public Route route(CharSequence content, int offset) {
+        final int length = content.length();
+        Node node = root;
+        Node matched = null;
+        int matchedEnd = -1;
+
+        int i = offset;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == ' ') {
+                if (node.handler != null) {
+                    matched = node;
+                    matchedEnd = i;
+                }
+                node = node.find(' ');
+                while (i < length && content.charAt(i) == ' ') i++;
+            } else {
+                node = node.find(normalize(c));
+                i++;
+            }
+            if (node == null) break;
+        }
+        if (node != null && i == length && node.handler != null) {
+            matched = node;
+            matchedEnd = length;
+        }
+        if (matched == null)
+            return null;
+
+        int arguments = matchedEnd;
+        while (arguments < length && content.charAt(arguments) == ' ') arguments++;
+        return new Route(matched.handler, matched.command, arguments);
+    }
+
+    private char normalize(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Class<? extends TextCommandHandler> handler;
+        private String command;
+
+        @Nullable
+        Node find(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0)
+                return children[i];
+
+            int at = -i - 1;
+            var node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = node;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+
+}
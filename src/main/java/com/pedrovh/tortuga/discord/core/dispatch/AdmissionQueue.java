@@ -0,0 +1,172 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of events in flight (queued or running) of a {@link CommandDispatcher}.
+ * <br>
+ * Each admitted event holds a {@link Ticket} until it finishes. When the capacity is reached, the {@link ShedPolicy}
+ * decides whether the incoming event is rejected or an older event, that hasn't started yet, is shed in its place.
+ */
+public class AdmissionQueue {
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final int capacity;
+    private final ShedPolicy policy;
+    private final AtomicInteger size = new AtomicInteger();
+    private final ConcurrentLinkedDeque<Ticket> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pendingEntries = new AtomicInteger();
+    private final Map<Long, Integer> perGuild = new ConcurrentHashMap<>();
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * @param capacity the maximum number of events in flight
+     * @param policy what to do when <code>capacity</code> is reached
+     */
+    public AdmissionQueue(int capacity, ShedPolicy policy) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Tries to admit an event.
+     * @param guild the id of the server of the event, or 0 if it's not from a server
+     * @param onShed called if the event is admitted but shed later, before it starts
+     * @return the ticket of the admitted event, or <code>null</code> if it was rejected
+     */
+    public Ticket admit(long guild, Runnable onShed) {
+        trim();
+        if (size.incrementAndGet() > capacity && !makeRoom(guild)) {
+            size.decrementAndGet();
+            shed.increment();
+            return null;
+        }
+        if (policy == ShedPolicy.FAIR_SHARE)
+            perGuild.merge(guild, 1, Integer::sum);
+
+        var ticket = new Ticket(guild, onShed);
+        pending.addLast(ticket);
+        pendingEntries.incrementAndGet();
+        return ticket;
+    }
+
+    /**
+     * @return the number of events in flight
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public ShedPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of events rejected or shed since this queue was created
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    private boolean makeRoom(long guild) {
+        return switch (policy) {
+            case REJECT_NEWEST -> false;
+            case DROP_OLDEST -> shedOldest(-1, Integer.MAX_VALUE);
+            case FAIR_SHARE -> {
+                int guilds = perGuild.size() + (perGuild.containsKey(guild) ? 0 : 1);
+                int share = Math.max(1, capacity / guilds);
+                yield perGuild.getOrDefault(guild, 0) < share && shedOldest(guild, share);
+            }
+        };
+    }
+
+    /**
+     * Sheds the oldest pending ticket, skipping <code>excludedGuild</code> and servers within their <code>share</code>.
+     */
+    private boolean shedOldest(long excludedGuild, int share) {
+        for (Iterator<Ticket> it = pending.iterator(); it.hasNext(); ) {
+            Ticket ticket = it.next();
+            if (ticket.guild == excludedGuild || (share != Integer.MAX_VALUE && perGuild.getOrDefault(ticket.guild, 0) <= share))
+                continue;
+            if (ticket.state.compareAndSet(PENDING, DONE)) {
+                ticket.release();
+                shed.increment();
+                ticket.onShed.run();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes tickets that already left the pending state from the head of the deque,
+     * or from the whole deque if it grew past twice the capacity.
+     */
+    private void trim() {
+        Ticket head;
+        while ((head = pending.peekFirst()) != null && head.state.get() != PENDING) {
+            if (pending.remove(head))
+                pendingEntries.decrementAndGet();
+        }
+        if (pendingEntries.get() > capacity * 2) {
+            for (Iterator<Ticket> it = pending.iterator(); it.hasNext(); ) {
+                if (it.next().state.get() != PENDING) {
+                    it.remove();
+                    pendingEntries.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Slot held by an admitted event.
+     */
+    public final class Ticket {
+
+        private final long guild;
+        private final Runnable onShed;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Ticket(long guild, Runnable onShed) {
+            this.guild = guild;
+            this.onShed = onShed;
+        }
+
+        /**
+         * Marks the event as running.
+         * @return false if the event was shed and must not run
+         */
+        public boolean start() {
+            return state.compareAndSet(PENDING, RUNNING);
+        }
+
+        /**
+         * Frees the slot of a running event, or of an event that couldn't be started.
+         */
+        public void finish() {
+            if (state.getAndSet(DONE) != DONE)
+                release();
+        }
+
+        private void release() {
+            size.decrementAndGet();
+            if (policy == ShedPolicy.FAIR_SHARE)
+                perGuild.computeIfPresent(guild, (k, v) -> v == 1 ? null : v - 1);
+        }
+    }
+
+}
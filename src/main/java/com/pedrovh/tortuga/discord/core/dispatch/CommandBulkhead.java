@@ -0,0 +1,265 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import com.pedrovh.tortuga.discord.core.command.Bulkhead;
+import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.exception.BotBusyException;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Applies the {@link Bulkhead} of a command handler.
+ * <br>
+ * Invocations waiting for a slot are kept as futures, completed when a running one finishes, so they don't hold any
+ * thread while waiting. Each is completed with whether it holds a slot, which it doesn't when the
+ * {@link Bulkhead.Policy#RUN} policy lets it run over the limit, or with <code>null</code> if it's dropped.
+ */
+public class CommandBulkhead {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandBulkhead.class);
+    /**
+     * Default time slash commands wait for a slot, leaving time to answer them within the interaction window.
+     */
+    public static final long SLASH_TIMEOUT = 2_000;
+
+    private static final CompletableFuture<Boolean> ACQUIRED = CompletableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> OVER_LIMIT = CompletableFuture.completedFuture(false);
+    private static final CompletableFuture<Boolean> DROPPED = CompletableFuture.completedFuture(null);
+    private static final CompletionStage<Void> SKIPPED = CompletableFuture.completedFuture(null);
+    private static final Map<String, CommandBulkhead> BULKHEADS = new ConcurrentHashMap<>();
+
+    private static final ClassValue<CommandBulkhead> HANDLERS = new ClassValue<>() {
+        @Override
+        protected CommandBulkhead computeValue(Class<?> handler) {
+            Bulkhead bulkhead = handler.getAnnotation(Bulkhead.class);
+            if (bulkhead == null) return null;
+            Command command = handler.getAnnotation(Command.class);
+            String name = command != null ? command.name() : handler.getSimpleName();
+            long timeout = bulkhead.timeout() >= 0 ? bulkhead.timeout() :
+                    SlashCommandHandler.class.isAssignableFrom(handler) ? SLASH_TIMEOUT : 0;
+            return BULKHEADS.computeIfAbsent(name, n -> new CommandBulkhead(n, bulkhead, timeout));
+        }
+    };
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long timeout;
+    private final Bulkhead.Policy policy;
+    @Nullable
+    private final ExecutorService executor;
+
+    private final ArrayDeque<CompletableFuture<Boolean>> waiting = new ArrayDeque<>();
+    private int active;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private CommandBulkhead(String name, Bulkhead bulkhead, long timeout) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, bulkhead.maxConcurrent());
+        this.maxQueued = Math.max(0, bulkhead.queue());
+        this.timeout = Math.max(0, timeout);
+        this.policy = bulkhead.policy();
+        this.executor = bulkhead.isolated() ?
+                Executors.newFixedThreadPool(maxConcurrent, Thread.ofPlatform().daemon().name("tortuga-" + name + "-", 0).factory()) :
+                null;
+        LOG.debug("Limiting command {} to {} concurrent invocations, {} queued for {}ms, then {}",
+                name, maxConcurrent, maxQueued, this.timeout, policy);
+
+        final var metrics = MetricsRegistry.getInstance();
+        metrics.gauge("tortuga.bulkhead.saturation", this::getSaturation, "command", name);
+        metrics.gauge("tortuga.bulkhead.queued", this::getQueued, "command", name);
+        metrics.gauge("tortuga.bulkhead.rejected", this::getRejectedCount, "command", name);
+        metrics.gauge("tortuga.bulkhead.timed_out", this::getTimedOutCount, "command", name);
+    }
+
+    /**
+     * @param handler the handler class
+     * @return the bulkhead of the handler, or <code>null</code> if it doesn't declare a {@link Bulkhead}
+     */
+    @Nullable
+    public static CommandBulkhead of(Class<?> handler) {
+        return HANDLERS.get(handler);
+    }
+
+    /**
+     * @return the bulkheads created so far, by command name
+     */
+    public static Collection<CommandBulkhead> getBulkheads() {
+        return Collections.unmodifiableCollection(BULKHEADS.values());
+    }
+
+    /**
+     * Runs the task once there's a free slot, and frees it when the stage returned by the task completes.
+     *
+     * @param task     the invocation of the handler
+     * @param executor runs the task when it had to wait for a slot, unless the bulkhead is isolated
+     * @return the stage of the task, a completed one if it was dropped, or one failed with a {@link BotBusyException}
+     * if it was rejected
+     */
+    public CompletionStage<?> run(Supplier<? extends CompletionStage<?>> task, Executor executor) {
+        return run(task, executor, () -> {});
+    }
+
+    /**
+     * Same as {@link #run(Supplier, Executor)}, calling <code>rejected</code> if the task is rejected or dropped.
+     *
+     * @param task     the invocation of the handler
+     * @param executor runs the task when it had to wait for a slot, unless the bulkhead is isolated
+     * @param rejected called instead of the task if it doesn't run, to give back what was taken for it
+     * @return the stage of the task, a completed one if it was dropped, or one failed with a {@link BotBusyException}
+     * if it was rejected
+     */
+    public CompletionStage<?> run(Supplier<? extends CompletionStage<?>> task, Executor executor, Runnable rejected) {
+        final CompletableFuture<Boolean> slot = acquire();
+        if (slot == DROPPED) {
+            rejected.run();
+            return SKIPPED;
+        }
+        if ((slot == ACQUIRED || slot == OVER_LIMIT) && this.executor == null)
+            return call(task, slot == ACQUIRED);
+        return slot
+                .whenComplete((held, e) -> {
+                    if (e != null || held == null)
+                        rejected.run();
+                })
+                .thenComposeAsync(held -> held == null ? SKIPPED : call(task, held).thenApply(r -> null),
+                        this.executor != null ? this.executor : executor);
+    }
+
+    private CompletionStage<?> call(Supplier<? extends CompletionStage<?>> task, boolean held) {
+        CompletionStage<?> stage = null;
+        try {
+            stage = task.get();
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        } finally {
+            // the task threw an Error, or returned no stage to wait for
+            if (stage == null && held)
+                release();
+        }
+        if (stage == null)
+            return SKIPPED;
+        return held ? stage.whenComplete((r, e) -> release()) : stage;
+    }
+
+    private CompletableFuture<Boolean> acquire() {
+        final CompletableFuture<Boolean> slot;
+        synchronized (this) {
+            if (active < maxConcurrent) {
+                active++;
+                return ACQUIRED;
+            }
+            if (waiting.size() >= maxQueued) {
+                rejected.increment();
+                return overLimit();
+            }
+            slot = new CompletableFuture<>();
+            waiting.add(slot);
+        }
+        if (timeout > 0) {
+            slot.orTimeout(timeout, TimeUnit.MILLISECONDS).exceptionally(e -> {
+                synchronized (this) {
+                    waiting.remove(slot);
+                }
+                timedOut.increment();
+                return null;
+            });
+            return slot.exceptionallyCompose(e -> overLimit());
+        }
+        return slot;
+    }
+
+    /**
+     * @return what an invocation that can't get a slot does, according to the policy
+     */
+    private CompletableFuture<Boolean> overLimit() {
+        return switch (policy) {
+            case REJECT -> CompletableFuture.failedFuture(new BotBusyException());
+            case DROP -> {
+                LOG.debug("Dropped an invocation of {}, all its slots are taken", name);
+                yield DROPPED;
+            }
+            case RUN -> OVER_LIMIT;
+        };
+    }
+
+    private void release() {
+        while (true) {
+            CompletableFuture<Boolean> next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            // the slot is handed over, unless the invocation already timed out
+            if (next.complete(true))
+                return;
+        }
+    }
+
+    // region getters
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return milliseconds an invocation may wait for a slot, 0 if it waits as long as it takes
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public Bulkhead.Policy getPolicy() {
+        return policy;
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    /**
+     * @return the running invocations over the maximum, from 0 to 1
+     */
+    public double getSaturation() {
+        return (double) getActive() / maxConcurrent;
+    }
+
+    /**
+     * @return how many invocations were rejected because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return how many invocations gave up waiting for a slot
+     */
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    // endregion
+
+}
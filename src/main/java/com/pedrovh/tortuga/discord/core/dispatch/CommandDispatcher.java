@@ -0,0 +1,221 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.*;
+
+/**
+ * Hands the events received by a listener to its {@link Executor}, following the configured {@link Ordering}.
+ * <br>
+ * With {@link Ordering#CHANNEL} or {@link Ordering#GUILD}, events of the same channel or server are handled in FIFO
+ * order, one at a time, while different channels or servers are handled in parallel. Synchronous handlers don't
+ * need to lock to protect state of a channel or server from concurrent commands. Tasks dispatched with
+ * {@link #dispatchAsync} are only ordered by when they start: the next task of a channel or server may start while
+ * the stage of the previous one is still running, so asynchronous handlers must protect that state themselves.
+ * <br>
+ * Events in flight are bounded by an {@link AdmissionQueue} of <code>dispatch.queue.capacity</code> (10000 by default,
+ * 0 disables it), shedding events according to <code>dispatch.queue.policy</code> when it's full.
+ * <br>
+ * Each event carries a {@link Priority}: queued events run in deadline order when the executor supports it, and
+ * interactions that can no longer be acknowledged are dropped instead of handled.
+ */
+public class CommandDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandDispatcher.class);
+    private static final CompletionStage<?> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private final Executor executor;
+    private final Ordering ordering;
+    private final StripedExecutor lanes;
+    private final AdmissionQueue admission;
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * Creates a dispatcher configured by <code>dispatch.ordering</code>, <code>dispatch.stripes</code>,
+     * <code>dispatch.queue.capacity</code> and <code>dispatch.queue.policy</code>.
+     * @param executor the executor that runs the tasks
+     */
+    public CommandDispatcher(Executor executor) {
+        this(executor,
+                Ordering.of(DiscordResource.get(DISPATCH_ORDERING)),
+                DiscordResource.getInt(DISPATCH_STRIPES, Runtime.getRuntime().availableProcessors() * 4),
+                createAdmissionQueue());
+    }
+
+    /**
+     * @param executor the executor that runs the tasks
+     * @param ordering which events should be kept in order
+     * @param stripes the number of ordered lanes, ignored if <code>ordering</code> is {@link Ordering#NONE}
+     * @param admission bounds the events in flight, <code>null</code> for no bound
+     */
+    public CommandDispatcher(Executor executor, Ordering ordering, int stripes, @Nullable AdmissionQueue admission) {
+        this.executor = executor;
+        this.ordering = ordering;
+        this.lanes = ordering == Ordering.NONE ? null : new StripedExecutor(executor, stripes);
+        this.admission = admission;
+        if (lanes != null)
+            LOG.debug("Ordering events by {} in {} lanes", ordering, lanes.getStripes());
+        if (admission != null)
+            LOG.debug("Admitting up to {} events in flight, shedding with {}", admission.getCapacity(), admission.getPolicy());
+    }
+
+    /**
+     * Runs the task, after any task previously dispatched with the same key if ordering is enabled.
+     * @param key the id of the channel or server the event belongs to, according to {@link #getOrdering()}
+     * @param task the task to run
+     */
+    public void dispatch(long key, Runnable task) {
+        dispatch(key, 0L, Priority.background(), task, () -> LOG.debug("Dispatched task was shed"));
+    }
+
+    /**
+     * Admits and runs the task, after any task previously dispatched with the same key if ordering is enabled.
+     * If the priority is expiring and its deadline has passed when the task is about to start, it's dropped.
+     * @param key the id of the channel or server the event belongs to, according to {@link #getOrdering()}
+     * @param guild the id of the server of the event, or 0 if it's not from a server
+     * @param priority the deadline of the task
+     * @param task the task to run
+     * @param rejected called instead of the task if it's rejected or shed because the dispatcher is overloaded
+     */
+    public void dispatch(long key, long guild, Priority priority, Runnable task, Runnable rejected) {
+        dispatchAsync(key, guild, priority, () -> {
+            task.run();
+            return COMPLETED;
+        }, rejected);
+    }
+
+    /**
+     * Same as {@link #dispatch(long, long, Priority, Runnable, Runnable)}, but the task is asynchronous:
+     * it keeps its slot in the admission queue until the returned stage completes.
+     * Ordering only applies to when tasks start, the next task with the same key doesn't wait for the stage.
+     * @param key the id of the channel or server the event belongs to, according to {@link #getOrdering()}
+     * @param guild the id of the server of the event, or 0 if it's not from a server
+     * @param priority the deadline of the task
+     * @param task the task to run
+     * @param rejected called instead of the task if it's rejected or shed because the dispatcher is overloaded
+     */
+    public void dispatchAsync(long key, long guild, Priority priority, Supplier<? extends CompletionStage<?>> task, Runnable rejected) {
+        AdmissionQueue.Ticket ticket = null;
+        if (admission != null) {
+            ticket = admission.admit(guild, rejected);
+            if (ticket == null) {
+                rejected.run();
+                return;
+            }
+        }
+        try {
+            execute(key, new DispatchedTask(priority, ticket, task));
+        } catch (RejectedExecutionException e) {
+            if (ticket != null)
+                ticket.finish();
+            rejected.run();
+        }
+    }
+
+    private void execute(long key, Runnable task) {
+        if (lanes == null)
+            executor.execute(task);
+        else
+            lanes.execute(key, task);
+    }
+
+    private static AdmissionQueue createAdmissionQueue() {
+        int capacity = DiscordResource.getInt(DISPATCH_QUEUE_CAPACITY, 10_000);
+        return capacity > 0 ? new AdmissionQueue(capacity, ShedPolicy.of(DiscordResource.get(DISPATCH_QUEUE_POLICY))) : null;
+    }
+
+    /**
+     * Registers gauges of the events in flight, shed and expired in the {@link MetricsRegistry}.
+     * @param owner the name of whoever dispatches through this dispatcher, used as the <code>listener</code> tag
+     */
+    public void registerMetrics(String owner) {
+        final var metrics = MetricsRegistry.getInstance();
+        metrics.gauge("tortuga.dispatch.expired", this::getExpiredCount, "listener", owner);
+        if (admission != null) {
+            metrics.gauge("tortuga.dispatch.in_flight", admission::size, "listener", owner);
+            metrics.gauge("tortuga.dispatch.shed", admission::getShedCount, "listener", owner);
+        }
+    }
+
+    /**
+     * @return the number of tasks dropped because their deadline passed before they started
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * @return the admission queue, or <code>null</code> if events in flight are not bounded
+     */
+    @Nullable
+    public AdmissionQueue getAdmission() {
+        return admission;
+    }
+
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    private final class DispatchedTask implements Runnable, Prioritized {
+
+        private final Priority priority;
+        private final AdmissionQueue.Ticket ticket;
+        private final Supplier<? extends CompletionStage<?>> task;
+
+        private DispatchedTask(Priority priority, @Nullable AdmissionQueue.Ticket ticket, Supplier<? extends CompletionStage<?>> task) {
+            this.priority = priority;
+            this.ticket = ticket;
+            this.task = task;
+        }
+
+        @Override
+        public long deadline() {
+            return priority.deadline();
+        }
+
+        @Override
+        public void run() {
+            if (ticket != null && !ticket.start())
+                return;
+            if (priority.isExpired(System.nanoTime())) {
+                expired.increment();
+                LOG.warn("Dropped a dispatched task, its deadline passed before it could start");
+                finish();
+                return;
+            }
+
+            CompletionStage<?> stage;
+            try {
+                stage = task.get();
+            } catch (RuntimeException | Error e) {
+                finish();
+                throw e;
+            }
+            if (stage == COMPLETED || stage == null)
+                finish();
+            else
+                stage.whenComplete((r, e) -> finish());
+        }
+
+        private void finish() {
+            if (ticket != null)
+                ticket.finish();
+        }
+    }
+
+}
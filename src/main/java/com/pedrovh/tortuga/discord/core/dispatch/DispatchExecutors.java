@@ -0,0 +1,108 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.DISPATCH_EXECUTOR;
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.DISPATCH_THREADS;
+
+/**
+ * Creates the {@link Executor} the listeners hand events to, configured by <code>dispatch.executor</code>:
+ * <ul>
+ *     <li><code>virtual</code> (default): a new virtual thread per event, so handlers blocking on REST calls don't hold platform threads</li>
+ *     <li><code>platform</code>: a fixed pool of <code>dispatch.threads</code> platform threads, running queued
+ *     {@link Prioritized} tasks in deadline order, so interactions go before text commands. Other tasks get the
+ *     deadline of {@link Priority#background()}, so they don't wait forever behind them</li>
+ *     <li><code>common</code>: the {@link ForkJoinPool#commonPool()}</li>
+ *     <li>the fully qualified name of an {@link Executor} implementation with a no-args constructor</li>
+ * </ul>
+ */
+public class DispatchExecutors {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DispatchExecutors.class);
+    private static final String THREAD_NAME = "tortuga-dispatch-";
+
+    public static final String VIRTUAL = "virtual";
+    public static final String PLATFORM = "platform";
+    public static final String COMMON = "common";
+
+    private DispatchExecutors() {}
+
+    private static final class Holder {
+        private static final Executor DEFAULT = create(DiscordResource.get(DISPATCH_EXECUTOR, VIRTUAL));
+    }
+
+    /**
+     * @return the executor shared by the listeners, created from <code>discord.properties</code> on first use
+     */
+    public static Executor getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * @param type <code>virtual</code>, <code>platform</code>, <code>common</code> or the name of an {@link Executor} class
+     * @return a new executor of the given type, or a virtual thread per task executor if it can't be created
+     */
+    public static Executor create(String type) {
+        switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case VIRTUAL -> {
+                LOG.debug("Dispatching events to virtual threads");
+                return virtual();
+            }
+            case PLATFORM -> {
+                int threads = DiscordResource.getInt(DISPATCH_THREADS, Runtime.getRuntime().availableProcessors() * 2);
+                LOG.debug("Dispatching events to a pool of {} platform threads", threads);
+                return platform(threads);
+            }
+            case COMMON -> {
+                LOG.debug("Dispatching events to the common pool");
+                return ForkJoinPool.commonPool();
+            }
+            default -> {
+                try {
+                    Executor executor = ComponentFactory.newInstance(Class.forName(type.trim()).asSubclass(Executor.class));
+                    LOG.debug("Dispatching events to {}", executor);
+                    return executor;
+                } catch (Exception e) {
+                    LOG.error("Unable to create dispatch executor '{}', using virtual threads instead", type, e);
+                    return virtual();
+                }
+            }
+        }
+    }
+
+    public static ExecutorService virtual() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME, 0).factory());
+    }
+
+    public static ExecutorService platform(int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(64, DispatchExecutors::compareDeadlines),
+                platformThreadFactory()) {
+            @Override
+            public void execute(Runnable command) {
+                super.execute(Prioritized.of(command));
+            }
+        };
+    }
+
+    private static int compareDeadlines(Runnable a, Runnable b) {
+        return Priority.compare(((Prioritized) a).deadline(), ((Prioritized) b).deadline());
+    }
+
+    static ThreadFactory platformThreadFactory() {
+        final var count = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, THREAD_NAME + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import java.util.Locale;
+
+/**
+ * Defines which events are handled in the order they were received, configured by <code>dispatch.ordering</code>.
+ */
+public enum Ordering {
+
+    /**
+     * No ordering, every event is handled as soon as possible.
+     */
+    NONE,
+
+    /**
+     * Events of the same channel are handled one at a time, in the order they were received.
+     */
+    CHANNEL,
+
+    /**
+     * Events of the same server are handled one at a time, in the order they were received.
+     * Events sent in DMs are ordered by channel.
+     */
+    GUILD;
+
+    /**
+     * @param value the configured value, case-insensitive
+     * @return the matching ordering, or {@link #NONE} if <code>value</code> is <code>null</code>
+     * @throws IllegalArgumentException if there's no matching ordering
+     */
+    public static Ordering of(String value) {
+        return value == null ? NONE : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+/**
+ * A task that should run before tasks with a later deadline.
+ * The platform pool of {@link DispatchExecutors} runs queued tasks in deadline order.
+ */
+public interface Prioritized {
+
+    /**
+     * @return the deadline of the task, in {@link System#nanoTime()} units
+     */
+    long deadline();
+
+    /**
+     * @param task the task to queue now
+     * @return the task if it's prioritized, otherwise the task with a {@link Priority#background()} deadline
+     */
+    static Runnable of(Runnable task) {
+        return task instanceof Prioritized ? task : new Background(task, Priority.background().deadline());
+    }
+
+    /**
+     * A task that wasn't prioritized, with the deadline it got when it was queued.
+     */
+    record Background(Runnable task, long deadline) implements Runnable, Prioritized {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+}
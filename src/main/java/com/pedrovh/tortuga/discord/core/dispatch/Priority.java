@@ -0,0 +1,66 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.DISPATCH_DEADLINE_BACKGROUND;
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.DISPATCH_DEADLINE_TEXT;
+
+/**
+ * The deadline of a dispatched event, in {@link System#nanoTime()} units.
+ * <br>
+ * Deadlines are always finite, so a task waiting long enough eventually goes before newer interactions,
+ * and they're compared with {@link #compare(long, long)}, as <code>nanoTime</code> may overflow.
+ *
+ * @param deadline when the event should have started
+ * @param expiring whether the event is dropped instead of handled once its deadline has passed
+ */
+public record Priority(long deadline, boolean expiring) {
+
+    /**
+     * Time discord gives an interaction to be acknowledged.
+     */
+    public static final long INTERACTION_WINDOW = TimeUnit.SECONDS.toNanos(3);
+
+
+    /**
+     * @return the priority of an interaction received now, which must start within {@link #INTERACTION_WINDOW}
+     */
+    public static Priority interaction() {
+        return new Priority(System.nanoTime() + INTERACTION_WINDOW, true);
+    }
+
+    /**
+     * @return the priority of a text command received now, which may wait <code>dispatch.deadline.text</code>
+     * milliseconds (10000 by default) behind interactions
+     */
+    public static Priority text() {
+        return new Priority(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DiscordResource.config().getInt(DISPATCH_DEADLINE_TEXT, 10_000)), false);
+    }
+
+    /**
+     * @return the priority of any other task queued now, which may wait <code>dispatch.deadline.background</code>
+     * milliseconds (30000 by default) behind interactions and text commands
+     */
+    public static Priority background() {
+        return new Priority(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DiscordResource.config().getInt(DISPATCH_DEADLINE_BACKGROUND, 30_000)), false);
+    }
+
+    /**
+     * Compares two deadlines, in {@link System#nanoTime()} units, by their difference, so it holds across an overflow.
+     * @return a negative number if <code>a</code> is earlier than <code>b</code>, 0 if they're equal, positive otherwise
+     */
+    public static int compare(long a, long b) {
+        return Long.signum(a - b);
+    }
+
+    /**
+     * @param now the current {@link System#nanoTime()}
+     * @return true if the event should be dropped
+     */
+    public boolean isExpired(long now) {
+        return expiring && now - deadline > 0;
+    }
+
+}
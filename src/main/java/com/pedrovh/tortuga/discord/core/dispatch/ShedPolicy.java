@@ -0,0 +1,35 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import java.util.Locale;
+
+/**
+ * Defines which event is shed when the {@link AdmissionQueue} is full, configured by <code>dispatch.queue.policy</code>.
+ */
+public enum ShedPolicy {
+
+    /**
+     * The incoming event is rejected.
+     */
+    REJECT_NEWEST,
+
+    /**
+     * The oldest event that hasn't started yet is shed to admit the incoming one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Every server gets an equal share of the capacity. The incoming event is rejected if its server already uses its
+     * share, otherwise the oldest event that hasn't started yet of a server above its share is shed.
+     */
+    FAIR_SHARE;
+
+    /**
+     * @param value the configured value, case-insensitive
+     * @return the matching policy, or {@link #REJECT_NEWEST} if <code>value</code> is <code>null</code>
+     * @throws IllegalArgumentException if there's no matching policy
+     */
+    public static ShedPolicy of(String value) {
+        return value == null ? REJECT_NEWEST : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+}
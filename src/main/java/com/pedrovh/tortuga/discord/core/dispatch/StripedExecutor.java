@@ -0,0 +1,111 @@
+package com.pedrovh.tortuga.discord.core.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks on a delegate {@link Executor}, keeping tasks of the same key in FIFO order.
+ * <br>
+ * Keys are hashed into a fixed number of lanes. A lane runs at most one task at a time, while different lanes run
+ * in parallel. Tasks don't hold a thread while waiting for their turn, they are only queued in their lane.
+ */
+public class StripedExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StripedExecutor.class);
+    private static final int BATCH_SIZE = 32;
+
+    private final Executor delegate;
+    private final Lane[] lanes;
+    private final int mask;
+
+    /**
+     * @param delegate the executor that runs the lanes
+     * @param stripes the number of lanes, rounded up to a power of two
+     */
+    public StripedExecutor(Executor delegate, int stripes) {
+        this.delegate = delegate;
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.lanes = new Lane[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++)
+            lanes[i] = new Lane();
+    }
+
+    /**
+     * Queues the task in the lane of <code>key</code>.
+     * @param key the ordering key, such as a channel or server id
+     * @param task the task to run
+     */
+    public void execute(long key, Runnable task) {
+        lanes[spread(key) & mask].submit(task);
+    }
+
+    public int getStripes() {
+        return lanes.length;
+    }
+
+    private static int spread(long key) {
+        int h = Long.hashCode(key * 0x9E3779B97F4A7C15L);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * While scheduled, a lane takes the deadline of the task at its head.
+     */
+    private final class Lane implements Runnable, Prioritized {
+
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long scheduledAt;
+
+        void submit(Runnable task) {
+            queue.add(Prioritized.of(task));
+            schedule();
+        }
+
+        @Override
+        public long deadline() {
+            return queue.peek() instanceof Prioritized prioritized ? prioritized.deadline() : scheduledAt;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                scheduledAt = System.nanoTime();
+                try {
+                    delegate.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Drains up to {@value #BATCH_SIZE} tasks, then yields the thread to other lanes.
+         */
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                int ran = 0;
+                while (ran++ < BATCH_SIZE && (task = queue.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        LOG.error("Error running dispatched task", e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty())
+                    schedule();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.pedrovh.tortuga.discord.core.exception;
+
+/**
+ * Warning sent to the user when their command was shed because the bot is overloaded.
+ * Uses the message <code>error.busy</code> when defined.
+ */
+public class BotBusyException extends BotWarning {
+
+    public BotBusyException() {
+        super("error.busy", "I'm a bit busy right now, try again in a moment!");
+    }
+
+}
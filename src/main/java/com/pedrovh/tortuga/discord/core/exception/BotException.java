@@ -5,17 +5,47 @@ import com.pedrovh.tortuga.discord.core.i18n.MessageResource;
 import org.javacord.api.entity.message.MessageFlag;
 import org.javacord.api.entity.message.embed.EmbedBuilder;
 
+import javax.annotation.Nullable;
 import java.awt.*;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import static com.pedrovh.tortuga.discord.core.DiscordProperties.COLOR_ERROR;
 import static com.pedrovh.tortuga.discord.core.DiscordProperties.COLOR_WARNING;
 
 /**
  * Exception related to Bot operations.
+ * <br>
+ * The title and colors of the embeds are resolved once per locale and kept until <code>discord.properties</code> is
+ * reloaded. For expected failures, prefer {@link BotWarning}, which doesn't fill in a stack trace.
  */
 public class BotException extends Exception {
 
+    private static final Map<Locale, Style> STYLES = new ConcurrentHashMap<>();
+    /**
+     * Which of the embed methods each class overrides, so overriding either one keeps working whichever is called.
+     */
+    private static final ClassValue<Overrides> OVERRIDES = new ClassValue<>() {
+        @Override
+        protected Overrides computeValue(Class<?> type) {
+            try {
+                return new Overrides(
+                        type.getMethod("getEmbed").getDeclaringClass() != BotException.class,
+                        type.getMethod("getEmbed", Locale.class).getDeclaringClass() != BotException.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    static {
+        DiscordResource.onReload(config -> STYLES.clear());
+    }
+
     private final boolean warning;
 
     public BotException() {
@@ -41,22 +71,74 @@ public class BotException extends Exception {
         this.warning = warning;
     }
 
+    /**
+     * @param writableStackTrace <code>false</code> for exceptions that are expected and don't need a stack trace,
+     *                           which also disables suppression
+     */
+    protected BotException(@Nullable String message, @Nullable Throwable cause, boolean warning, boolean writableStackTrace) {
+        super(message, cause, writableStackTrace, writableStackTrace);
+        this.warning = warning;
+    }
+
+    /**
+     * @param e the exception, possibly wrapped by a {@link CompletionException} or {@link ExecutionException}
+     * @return the exception itself if it's a {@link BotException}, or a new {@link BotException} caused by it
+     */
+    public static BotException of(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null)
+            cause = cause.getCause();
+        return cause instanceof BotException bot ? bot : new BotException(cause);
+    }
+
+    /**
+     * @return the embed to respond with, in the default locale
+     */
     public EmbedBuilder getEmbed() {
+        if (OVERRIDES.get(getClass()).localized())
+            return getEmbed(Locale.getDefault());
+        return buildEmbed(Locale.getDefault());
+    }
+
+    /**
+     * Calls {@link #getEmbed()} instead if a subclass only overrides that one.
+     * @param locale the language of the title
+     * @return the embed to respond with
+     */
+    public EmbedBuilder getEmbed(Locale locale) {
+        final Overrides overrides = OVERRIDES.get(getClass());
+        if (overrides.unlocalized() && !overrides.localized())
+            return getEmbed();
+        return buildEmbed(locale);
+    }
+
+    private EmbedBuilder buildEmbed(Locale locale) {
+        final Style style = STYLES.computeIfAbsent(locale, Style::of);
+        final String message = getMessage(locale);
         var builder = new EmbedBuilder()
-                .setTitle(Optional.ofNullable(MessageResource.getMessage("error.title")).orElse("Error!"))
-                .setColor(isWarning() ?
-                        Color.decode(DiscordResource.get(COLOR_WARNING, "#ffff00")) :
-                        Color.decode(DiscordResource.get(COLOR_ERROR, "#ff0000")));
-
-        if (getMessage() != null) {
-            if (isWarning()) builder.setTitle(getMessage());
-            else builder.setDescription(getMessage());
+                .setColor(isWarning() ? style.warning() : style.error());
+
+        if (message != null) {
+            if (isWarning()) builder.setTitle(message);
+            else builder.setTitle(style.title()).setDescription(message);
+        }
+        else {
+            builder.setTitle(style.title());
+            if (getCause() != null)
+                builder.setDescription(getCause().getMessage());
         }
-        else if (getCause() != null)
-            builder.setDescription(getCause().getMessage());
         return builder;
     }
 
+    /**
+     * @param locale the locale of the response
+     * @return the message to respond with, {@link #getMessage()} unless overridden
+     */
+    @Nullable
+    protected String getMessage(Locale locale) {
+        return getMessage();
+    }
+
     public MessageFlag[] getFlags() {
         return isWarning() ? null : new MessageFlag[] {MessageFlag.EPHEMERAL};
     }
@@ -64,4 +146,16 @@ public class BotException extends Exception {
     public boolean isWarning() {
         return warning;
     }
+
+    private record Overrides(boolean unlocalized, boolean localized) {}
+
+    private record Style(String title, Color warning, Color error) {
+        private static Style of(Locale locale) {
+            return new Style(
+                    Optional.ofNullable(MessageResource.getMessage(locale, "error.title")).orElse("Error!"),
+                    DiscordResource.getColor(COLOR_WARNING, Color.YELLOW),
+                    DiscordResource.getColor(COLOR_ERROR, Color.RED));
+        }
+    }
+
 }
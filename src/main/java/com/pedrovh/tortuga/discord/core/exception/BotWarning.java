@@ -0,0 +1,61 @@
+package com.pedrovh.tortuga.discord.core.exception;
+
+import com.pedrovh.tortuga.discord.core.i18n.MessageResource;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Warning for expected failures, like invalid input from the user.
+ * <br>
+ * It doesn't fill in a stack trace, so throwing it costs about as much as returning. Since it has no mutable state,
+ * a single instance can be thrown repeatedly.
+ * <br>
+ * When created with a message key, the message is resolved in the locale of the response.
+ */
+public class BotWarning extends BotException {
+
+    @Nullable
+    private final String key;
+    private final Object[] args;
+
+    public BotWarning(String message) {
+        super(message, null, true, false);
+        this.key = null;
+        this.args = null;
+    }
+
+    /**
+     * @param key      key of the message in <code>i18n/messages</code>
+     * @param fallback message used when the key isn't defined
+     * @param args     the arguments of the message
+     */
+    protected BotWarning(String key, String fallback, Object... args) {
+        super(fallback, null, true, false);
+        this.key = key;
+        this.args = args;
+    }
+
+    /**
+     * @param key      key of the message in <code>i18n/messages</code>
+     * @param fallback message used when the key isn't defined
+     * @param args     the arguments of the message
+     * @return a warning resolved in the locale of the response
+     */
+    public static BotWarning localized(String key, String fallback, Object... args) {
+        return new BotWarning(key, fallback, args);
+    }
+
+    @Override
+    public String getMessage() {
+        return getMessage(Locale.getDefault());
+    }
+
+    @Override
+    protected String getMessage(Locale locale) {
+        if (key == null) return super.getMessage();
+        return Optional.ofNullable(MessageResource.getMessage(locale, key, args)).orElse(super.getMessage());
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.pedrovh.tortuga.discord.core.exception;
+
+/**
+ * Warning sent to the user when they used a command more often than its
+ * {@link com.pedrovh.tortuga.discord.core.command.Cooldown} allows.
+ * Uses the message <code>error.cooldown</code> when defined, with the seconds to wait as <code>{0}</code>.
+ */
+public class CooldownException extends BotWarning {
+
+    private final long retryAfter;
+
+    /**
+     * @param retryAfter milliseconds until the command can be used again
+     */
+    public CooldownException(long retryAfter) {
+        super("error.cooldown", "Slow down! Try again in " + seconds(retryAfter) + "s.", seconds(retryAfter));
+        this.retryAfter = retryAfter;
+    }
+
+    private static long seconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /**
+     * @return milliseconds until the command can be used again
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -2,11 +2,17 @@ package com.pedrovh.tortuga.discord.core.exception;
 
 import org.javacord.api.entity.message.embed.EmbedBuilder;
 
+import java.util.Locale;
+
 public class ServerRequiredException extends BotException {
 
+    public ServerRequiredException() {
+        super(null, null, false, false);
+    }
+
     @Override
-    public EmbedBuilder getEmbed() {
-        return super.getEmbed().setDescription("You have to be in a server!");
+    public EmbedBuilder getEmbed(Locale locale) {
+        return super.getEmbed(locale).setDescription("You have to be in a server!");
     }
 
 }
@@ -0,0 +1,16 @@
+package com.pedrovh.tortuga.discord.core.guild;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+
+/**
+ * Settings of a guild. Missing values fall back to <code>command.text.prefix</code> and the default {@link Locale}.
+ *
+ * @param prefix the text command prefix of the guild
+ * @param locale the language of the guild
+ */
+public record GuildSettings(@Nullable String prefix, @Nullable Locale locale) {
+
+    public static final GuildSettings EMPTY = new GuildSettings(null, null);
+
+}
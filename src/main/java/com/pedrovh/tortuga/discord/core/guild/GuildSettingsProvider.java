@@ -0,0 +1,32 @@
+package com.pedrovh.tortuga.discord.core.guild;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * Source of {@link GuildSettings}, e.g. a database. Set it with <code>guild.settings.provider</code> or
+ * {@link GuildSettingsService#setProvider(GuildSettingsProvider)}.
+ * <br>
+ * Results are cached by {@link GuildSettingsService}, so {@link #load(long)} is only called on a miss or to refresh an
+ * expired entry. Call {@link GuildSettingsService#invalidate(long)} when the settings of a guild change.
+ */
+public interface GuildSettingsProvider {
+
+    /**
+     * @param guildId the id of the guild
+     * @return the settings of the guild, or <code>null</code> if it has none
+     */
+    @Nullable
+    GuildSettings load(long guildId);
+
+    /**
+     * Every prefix a guild may have, used to ignore messages that can't be commands without looking up their guild.
+     *
+     * @return the prefixes of all guilds, or <code>null</code> if they are not known
+     */
+    @Nullable
+    default Collection<String> getPrefixes() {
+        return null;
+    }
+
+}
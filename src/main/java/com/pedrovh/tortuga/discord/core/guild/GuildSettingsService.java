@@ -0,0 +1,304 @@
+package com.pedrovh.tortuga.discord.core.guild;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.*;
+
+/**
+ * Resolves the {@link GuildSettings} of each guild through a {@link GuildSettingsProvider}, behind a cache bounded by
+ * <code>guild.settings.cache.size</code> guilds (10000 by default).
+ * <br>
+ * Entries expire <code>guild.settings.cache.ttl</code> seconds (300 by default) after they were loaded. An expired entry
+ * is still returned while it's reloaded in the background. Settings are always loaded on a virtual thread, once per
+ * guild however many messages are waiting for them, and {@link #whenLoaded} lets the gateway thread continue meanwhile.
+ * <br>
+ * The first characters of every known prefix are kept in a bitset, so messages that can't be commands are ignored
+ * without looking up their guild.
+ */
+public class GuildSettingsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GuildSettingsService.class);
+    private static final Executor LOADER = Thread::startVirtualThread;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttl;
+    private volatile GuildSettingsProvider provider;
+    /** first characters of the known prefixes, <code>null</code> if any message may be a command */
+    @Nullable
+    private volatile BitSet firstChars;
+
+    private GuildSettingsService(GuildSettingsProvider provider, int maxSize, long ttlSeconds) {
+        this.provider = provider;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttl = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        refreshPrefixes();
+        DiscordResource.onReload(config -> refreshPrefixes());
+    }
+
+    private static final class Holder {
+        private static final GuildSettingsService INSTANCE = new GuildSettingsService(
+                createProvider(DiscordResource.get(GUILD_SETTINGS_PROVIDER)),
+                DiscordResource.getInt(GUILD_SETTINGS_CACHE_SIZE, 10_000),
+                DiscordResource.getInt(GUILD_SETTINGS_CACHE_TTL, 300));
+    }
+
+    public static GuildSettingsService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static GuildSettingsProvider createProvider(@Nullable String type) {
+        if (type != null) {
+            try {
+                return ComponentFactory.newInstance(Class.forName(type.trim()).asSubclass(GuildSettingsProvider.class));
+            } catch (Exception e) {
+                LOG.error("Unable to create guild settings provider '{}', using the default instead", type, e);
+            }
+        }
+        return new PropertiesGuildSettingsProvider();
+    }
+
+    // region lookup
+
+    /**
+     * Blocks until the settings of the guild are loaded, if they aren't yet, so it shouldn't be called on the gateway
+     * thread. Prefer {@link #getIfLoaded} or {@link #whenLoaded} there.
+     * @param guildId the id of the guild, <code>0</code> outside of guilds
+     * @return the settings of the guild, {@link GuildSettings#EMPTY} if it has none
+     */
+    public GuildSettings get(long guildId) {
+        if (guildId == 0L) return GuildSettings.EMPTY;
+        return entry(guildId).settings.join();
+    }
+
+    /**
+     * Doesn't wait or allocate.
+     * @param guildId the id of the guild, <code>0</code> outside of guilds
+     * @return the settings of the guild, or <code>null</code> if they're still being loaded or have actions waiting for them
+     */
+    @Nullable
+    public GuildSettings getIfLoaded(long guildId) {
+        if (guildId == 0L) return GuildSettings.EMPTY;
+        final Entry entry = cache.get(guildId);
+        if (entry == null || !entry.tail.isDone())
+            return null;
+        refreshIfExpired(guildId, entry, System.nanoTime());
+        return entry.settings.join();
+    }
+
+    /**
+     * Runs the action with the settings of the guild once they're loaded, starting to load them if needed.
+     * Actions of the same guild run in the order they were given, on the thread that loaded the settings.
+     * @param guildId the id of the guild, <code>0</code> outside of guilds
+     * @param action what to do with the settings
+     */
+    public void whenLoaded(long guildId, Consumer<GuildSettings> action) {
+        if (guildId == 0L) {
+            action.accept(GuildSettings.EMPTY);
+            return;
+        }
+        final Entry entry = entry(guildId);
+        synchronized (entry) {
+            entry.tail = entry.tail.handle((r, e) -> {
+                // an action that fails is logged here, it doesn't stop the ones queued after it
+                try {
+                    action.accept(entry.settings.join());
+                } catch (RuntimeException | Error ex) {
+                    LOG.error("Error handling an event that waited for the settings of guild {}", guildId, ex);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * @param settings the settings of a guild
+     * @return the prefix of the settings, or <code>command.text.prefix</code> if it has none
+     */
+    @Nullable
+    public String getPrefix(GuildSettings settings) {
+        String prefix = settings.prefix();
+        return prefix != null ? prefix : getDefaultPrefix();
+    }
+
+    private Entry entry(long guildId) {
+        final long now = System.nanoTime();
+        Entry entry = cache.get(guildId);
+        if (entry == null) {
+            if (cache.size() >= maxSize)
+                evict(now);
+            entry = cache.computeIfAbsent(guildId, id ->
+                    new Entry(CompletableFuture.supplyAsync(() -> load(id), LOADER), now + ttl));
+        } else {
+            refreshIfExpired(guildId, entry, now);
+        }
+        return entry;
+    }
+
+    /**
+     * Reloads an expired entry in the background, while it's still served.
+     */
+    private void refreshIfExpired(long guildId, Entry entry, long now) {
+        if (now - entry.expiresAt > 0 && entry.settings.isDone() && entry.refreshing.compareAndSet(false, true))
+            LOADER.execute(() -> cache.put(guildId,
+                    new Entry(CompletableFuture.completedFuture(load(guildId)), System.nanoTime() + ttl)));
+    }
+
+    /**
+     * Waits for the settings of the guild if they aren't loaded yet, like {@link #get(long)}.
+     * @param guildId the id of the guild, <code>0</code> outside of guilds
+     * @return the prefix of the guild, or <code>command.text.prefix</code> if it has none
+     */
+    @Nullable
+    public String getPrefix(long guildId) {
+        return getPrefix(get(guildId));
+    }
+
+    /**
+     * Waits for the settings of the guild if they aren't loaded yet, like {@link #get(long)}.
+     * @param guildId the id of the guild, <code>0</code> outside of guilds
+     * @return the locale of the guild, or the default locale if it has none
+     */
+    public Locale getLocale(long guildId) {
+        Locale locale = get(guildId).locale();
+        return locale != null ? locale : Locale.getDefault();
+    }
+
+    @Nullable
+    public String getDefaultPrefix() {
+        return DiscordResource.config().textPrefix();
+    }
+
+    /**
+     * Checks the first character of the message against the first characters of every known prefix.
+     * Doesn't look up any guild and doesn't allocate.
+     *
+     * @param content the content of the message
+     * @return <code>false</code> if the message can't start with any prefix
+     */
+    public boolean mayBeCommand(@Nullable CharSequence content) {
+        if (content == null || content.isEmpty()) return false;
+        final BitSet chars = firstChars;
+        return chars == null || chars.get(content.charAt(0));
+    }
+
+    private GuildSettings load(long guildId) {
+        try {
+            GuildSettings settings = provider.load(guildId);
+            return settings != null ? settings : GuildSettings.EMPTY;
+        } catch (RuntimeException e) {
+            LOG.error("Error loading the settings of guild {}", guildId, e);
+            return GuildSettings.EMPTY;
+        }
+    }
+
+    private void evict(long now) {
+        cache.values().removeIf(entry -> now - entry.expiresAt > 0);
+        final Iterator<Long> iterator = cache.keySet().iterator();
+        int excess = cache.size() - maxSize + Math.max(1, maxSize / 10);
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // endregion
+
+    // region changes
+
+    /**
+     * Drops the cached settings of a guild, to be loaded again on next use.
+     *
+     * @param guildId the id of the guild
+     */
+    public void invalidate(long guildId) {
+        cache.remove(guildId);
+        refreshPrefixes();
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+        refreshPrefixes();
+    }
+
+    public GuildSettingsProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Replaces the provider and drops all cached settings.
+     *
+     * @param provider the new provider
+     */
+    public void setProvider(GuildSettingsProvider provider) {
+        this.provider = provider;
+        invalidateAll();
+    }
+
+    private void refreshPrefixes() {
+        final Collection<String> prefixes;
+        try {
+            prefixes = provider.getPrefixes();
+        } catch (RuntimeException e) {
+            LOG.error("Error loading the prefixes of guilds", e);
+            firstChars = null;
+            return;
+        }
+        if (prefixes == null) {
+            firstChars = null;
+            return;
+        }
+        final BitSet chars = new BitSet();
+        final String defaultPrefix = getDefaultPrefix();
+        if (defaultPrefix != null && !addFirstChar(chars, defaultPrefix)) {
+            firstChars = null;
+            return;
+        }
+        for (String prefix : prefixes) {
+            if (!addFirstChar(chars, prefix)) {
+                firstChars = null;
+                return;
+            }
+        }
+        firstChars = chars;
+    }
+
+    private static boolean addFirstChar(BitSet chars, String prefix) {
+        if (prefix.isEmpty()) return false;
+        chars.set(prefix.charAt(0));
+        return true;
+    }
+
+    // endregion
+
+    private static final class Entry {
+        private final CompletableFuture<GuildSettings> settings;
+        private final long expiresAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        /** completed once the settings are loaded and the actions waiting for them ran, guarded by the entry */
+        private volatile CompletableFuture<?> tail;
+
+        private Entry(CompletableFuture<GuildSettings> settings, long expiresAt) {
+            this.settings = settings;
+            this.expiresAt = expiresAt;
+            this.tail = settings;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.pedrovh.tortuga.discord.core.guild;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.GUILD_SETTINGS_FILE;
+
+/**
+ * The default {@link GuildSettingsProvider}. Keeps the settings in memory and, if <code>guild.settings.file</code> is
+ * set, reads them from and saves them to that file, as:
+ * <pre>
+ * 123456789.prefix=?
+ * 123456789.locale=pt-BR
+ * </pre>
+ */
+public class PropertiesGuildSettingsProvider implements GuildSettingsProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertiesGuildSettingsProvider.class);
+    private static final String PREFIX = ".prefix";
+    private static final String LOCALE = ".locale";
+
+    private final Map<Long, GuildSettings> settings = new ConcurrentHashMap<>();
+    @Nullable
+    private final Path file;
+
+    public PropertiesGuildSettingsProvider() {
+        this(Optional.ofNullable(DiscordResource.get(GUILD_SETTINGS_FILE)).map(Paths::get).orElse(null));
+    }
+
+    public PropertiesGuildSettingsProvider(@Nullable Path file) {
+        this.file = file;
+        if (file != null && Files.exists(file))
+            read(file);
+    }
+
+    @Override
+    public GuildSettings load(long guildId) {
+        return settings.get(guildId);
+    }
+
+    @Override
+    public Collection<String> getPrefixes() {
+        return settings.values()
+                .stream()
+                .map(GuildSettings::prefix)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Changes the settings of a guild, saving them to <code>guild.settings.file</code> if it is set.
+     *
+     * @param guildId  the id of the guild
+     * @param settings the new settings, or <code>null</code> to remove them
+     */
+    public void put(long guildId, @Nullable GuildSettings settings) {
+        if (settings == null) this.settings.remove(guildId);
+        else this.settings.put(guildId, settings);
+        if (file != null)
+            write(file);
+        GuildSettingsService.getInstance().invalidate(guildId);
+    }
+
+    private void read(Path file) {
+        final Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            LOG.error("Error reading guild settings from {}", file, e);
+            return;
+        }
+        final Map<Long, String> prefixes = new HashMap<>();
+        final Map<Long, Locale> locales = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                if (key.endsWith(PREFIX))
+                    prefixes.put(Long.parseLong(key.substring(0, key.length() - PREFIX.length())), properties.getProperty(key));
+                else if (key.endsWith(LOCALE))
+                    locales.put(Long.parseLong(key.substring(0, key.length() - LOCALE.length())),
+                            Locale.forLanguageTag(properties.getProperty(key).trim().replace('_', '-')));
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring guild setting '{}', the key must start with the guild id", key);
+            }
+        }
+        final Set<Long> guilds = new HashSet<>(prefixes.keySet());
+        guilds.addAll(locales.keySet());
+        guilds.forEach(guild -> settings.put(guild, new GuildSettings(prefixes.get(guild), locales.get(guild))));
+        LOG.info("Loaded settings of {} guilds from {}", guilds.size(), file);
+    }
+
+    private synchronized void write(Path file) {
+        final Properties properties = new Properties();
+        settings.forEach((guild, value) -> {
+            if (value.prefix() != null)
+                properties.setProperty(guild + PREFIX, value.prefix());
+            if (value.locale() != null)
+                properties.setProperty(guild + LOCALE, value.locale().toLanguageTag());
+        });
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            LOG.error("Error saving guild settings to {}", file, e);
+        }
+    }
+
+}
@@ -4,34 +4,51 @@ import org.javacord.api.interaction.SlashCommandOptionChoice;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
 
 /**
- * Reads the resource bundle <code>i18n/messages</code> and resolves values based on {@link Locale}
+ * Reads the resource bundle <code>i18n/messages</code> and resolves values based on {@link Locale}.
+ * <br>
+ * The available bundles are discovered once, from the file names listed in <code>i18n/messages.index</code> or, if
+ * there's no index, from a listing of the <code>i18n</code> directory. Each bundle is only loaded when a message is
+ * first requested for it, and the fallback chain of a locale (<code>pt_BR</code> -> <code>pt</code> -> default) is
+ * resolved once.
+ * <br>
+ * Values are compiled into {@link MessageTemplate}s on first use and cached per locale.
  */
 @SuppressWarnings("unused")
 public class MessageResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(MessageResource.class);
     private static final String BUNDLE_NAME = "i18n/messages";
+    private static final String DIRECTORY = "i18n";
+    private static final String INDEX = BUNDLE_NAME + ".index";
+    private static final String FILE_PREFIX = "messages";
+    private static final String FILE_SUFFIX = ".properties";
+    private static final ResourceBundle.Control CONTROL = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
     protected static final Map<Locale, ResourceBundle> BUNDLES = new ConcurrentHashMap<>();
+    private static final Map<Locale, Optional<Locale>> RESOLVED = new ConcurrentHashMap<>();
+    private static final Map<Locale, Map<String, MessageTemplate>> TEMPLATES = new ConcurrentHashMap<>();
 
-    static {
-        for (Locale locale : Locale.getAvailableLocales()) {
-            try {
-                URL rb = findResourceURL(locale.toString());
-                if(rb != null)
-                {
-                    LOG.trace("Loading messages resource for {}", locale);
-                    BUNDLES.put(locale, ResourceBundle.getBundle(BUNDLE_NAME, locale));
-                }
-            } catch (MissingResourceException ex) {
-                LOG.info("Resource bundle {} not found", BUNDLE_NAME);
-            }
-        }
+    private static final class Holder {
+        private static final Set<Locale> AVAILABLE = discoverLocales();
     }
 
     private MessageResource(){}
@@ -45,24 +62,57 @@ public class MessageResource {
     }
 
     public static String getMessage(Locale locale, String key) {
-        try {
-            return parseAnyInnerKeys(locale, BUNDLES.get(locale).getString(key));
-        } catch (MissingResourceException e) {
-            LOG.warn("Resource value not found for key: '{}' for locale '{}'", key, locale);
-        } catch (NullPointerException e) {
-            LOG.error("Bundle not found for locale {}", locale);
-        }
-        return null;
+        MessageTemplate template = getTemplate(locale, key);
+        return template != null ? template.render() : null;
     }
 
     public static String getMessage(Locale locale, String key, Object... args) {
-        String value = getMessage(locale, String.format(key, args));
-        if (value == null) return null;
+        MessageTemplate template = getTemplate(locale, key.indexOf('%') >= 0 ? String.format(key, args) : key);
+        return template != null ? template.render(args) : null;
+    }
+
+    /**
+     * @param locale the locale
+     * @param key    the message key
+     * @return the compiled message, or <code>null</code> if there's no value for the key
+     */
+    public static MessageTemplate getTemplate(Locale locale, String key) {
+        final Locale resolved = resolve(locale);
+        final ResourceBundle bundle = resolved != null ? getBundle(resolved) : null;
+        if (bundle == null) {
+            LOG.error("Bundle not found for locale {}", locale);
+            return null;
+        }
+        final MessageTemplate template = compile(resolved, bundle, key, new HashSet<>());
+        if (template == null)
+            LOG.warn("Resource value not found for key: '{}' for locale '{}'", key, locale);
+        return template;
+    }
 
-        for (int i = 0; i < args.length; i++) {
-            value = value.replace(String.format("{%d}", i), String.valueOf(args[i]));
+    /**
+     * Only templates of keys the bundle has are cached, so the cache can't grow past the size of the bundles.
+     * @return the compiled value of the key, or <code>null</code> if the bundle doesn't have it
+     */
+    @Nullable
+    private static MessageTemplate compile(Locale locale, ResourceBundle bundle, String key, Set<String> visiting) {
+        final Map<String, MessageTemplate> cache = TEMPLATES.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+        MessageTemplate template = cache.get(key);
+        if (template != null) return template;
+
+        if (!visiting.add(key)) {
+            LOG.warn("Message key '{}' references itself for locale '{}'", key, locale);
+            return null;
         }
-        return parseAnyInnerKeys(locale, value);
+        try {
+            String value = bundle.getString(key);
+            template = MessageTemplate.compile(value, inner -> compile(locale, bundle, inner, visiting));
+        } catch (MissingResourceException e) {
+            return null;
+        } finally {
+            visiting.remove(key);
+        }
+        MessageTemplate previous = cache.putIfAbsent(key, template);
+        return previous != null ? previous : template;
     }
 
     public static List<SlashCommandOptionChoice> getSupportedLocalesAsChoices() {
@@ -75,32 +125,104 @@ public class MessageResource {
     }
 
     public static List<String> getSupportedLocales() {
-        return BUNDLES.keySet()
+        return Holder.AVAILABLE
                 .stream()
+                .filter(locale -> !Locale.ROOT.equals(locale))
                 .map(Locale::toString)
+                .sorted()
                 .map(str -> str.replace('_', '-'))
                 .toList();
     }
 
-    private static URL findResourceURL(final String locale) {
-        URL url = ClassLoader.getSystemResource(String.format("%s_%s.properties", BUNDLE_NAME, locale));
-        if (url == null) {
-            int i = locale.lastIndexOf('_');
-            if (i > 0)
-                url = findResourceURL(locale.substring(0, i));
-        }
-        return url;
+    /**
+     * @param locale the requested locale
+     * @return the most specific locale with a bundle, the root locale for the default bundle
+     * or <code>null</code> if there's no bundle for it
+     */
+    private static Locale resolve(final Locale locale) {
+        return RESOLVED.computeIfAbsent(locale, l -> CONTROL.getCandidateLocales(BUNDLE_NAME, l)
+                        .stream()
+                        .filter(Holder.AVAILABLE::contains)
+                        .findFirst())
+                .orElse(null);
     }
 
-    private static String parseAnyInnerKeys(final Locale locale, String value) {
-        var pattern = Pattern.compile("\\{[^}]*}");
-        var matcher = pattern.matcher(value);
+    private static ResourceBundle getBundle(final Locale locale) {
+        return BUNDLES.computeIfAbsent(locale, l -> {
+            try {
+                LOG.trace("Loading messages resource for {}", l);
+                return ResourceBundle.getBundle(BUNDLE_NAME, l, getClassLoader(), CONTROL);
+            } catch (MissingResourceException ex) {
+                LOG.info("Resource bundle {} not found for {}", BUNDLE_NAME, l);
+                return null;
+            }
+        });
+    }
 
-        while (matcher.find() && !matcher.group().matches("\\{\\d}")) {
-            String innerKey = matcher.group().substring(1, matcher.group().length()-1);
-            value = value.replace(matcher.group(), BUNDLES.get(locale).getString(innerKey));
+    // region discovery
+
+    private static Set<Locale> discoverLocales() {
+        final Set<Locale> locales = new HashSet<>();
+        final ClassLoader loader = getClassLoader();
+        try (InputStream index = loader.getResourceAsStream(INDEX)) {
+            if (index != null) {
+                LOG.debug("Reading bundle index {}", INDEX);
+                new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))
+                        .lines()
+                        .map(String::trim)
+                        .forEach(name -> addLocale(locales, name));
+                return locales;
+            }
+            Enumeration<URL> directories = loader.getResources(DIRECTORY);
+            while (directories.hasMoreElements()) {
+                URL directory = directories.nextElement();
+                switch (directory.getProtocol()) {
+                    case "file" -> {
+                        try (Stream<Path> files = Files.list(Paths.get(directory.toURI()))) {
+                            files.forEach(file -> addLocale(locales, file.getFileName().toString()));
+                        }
+                    }
+                    case "jar" -> {
+                        JarURLConnection connection = (JarURLConnection) directory.openConnection();
+                        connection.setUseCaches(false);
+                        try (JarFile jar = connection.getJarFile()) {
+                            Enumeration<JarEntry> entries = jar.entries();
+                            while (entries.hasMoreElements()) {
+                                String name = entries.nextElement().getName();
+                                if (name.startsWith(DIRECTORY + '/') && name.indexOf('/', DIRECTORY.length() + 1) < 0)
+                                    addLocale(locales, name.substring(DIRECTORY.length() + 1));
+                            }
+                        }
+                    }
+                    default -> LOG.warn("Unable to list bundles in {}, add a {} file", directory, INDEX);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            LOG.error("Error discovering resource bundles {}", BUNDLE_NAME, e);
+        }
+        LOG.debug("Found resource bundles {} for {}", BUNDLE_NAME, locales);
+        return locales;
+    }
+
+    private static void addLocale(final Set<Locale> locales, final String fileName) {
+        if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) return;
+        String suffix = fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length());
+        if (suffix.isEmpty()) {
+            locales.add(Locale.ROOT);
+        } else if (suffix.charAt(0) == '_') {
+            String[] parts = suffix.substring(1).split("_", 3);
+            locales.add(switch (parts.length) {
+                case 1 -> Locale.of(parts[0]);
+                case 2 -> Locale.of(parts[0], parts[1]);
+                default -> Locale.of(parts[0], parts[1], parts[2]);
+            });
         }
-        return value;
     }
 
+    private static ClassLoader getClassLoader() {
+        return MessageResource.class.getClassLoader();
+    }
+
+    // endregion
+
 }
@@ -0,0 +1,114 @@
+package com.pedrovh.tortuga.discord.core.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A message value compiled once: nested <code>{key}</code> references are inlined and <code>{n}</code> placeholders
+ * become indexed slots, so {@link #render(Object...)} is a single pass with no parsing.
+ * <br>
+ * Placeholders without a matching argument are rendered as is, like nested keys that don't exist.
+ */
+public final class MessageTemplate {
+
+    private final String[] literals;
+    private final int[] slots;
+    private final int length;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int total = 0;
+        for (String literal : literals) total += literal.length();
+        this.length = total;
+    }
+
+    /**
+     * Compiles a message value.
+     *
+     * @param value    the raw value
+     * @param resolver resolves nested keys to their compiled templates, or <code>null</code> if they don't exist
+     * @return the compiled template
+     */
+    static MessageTemplate compile(String value, Function<String, MessageTemplate> resolver) {
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            int close = c == '{' ? value.indexOf('}', i + 1) : -1;
+            if (close < 0) {
+                current.append(c);
+                i++;
+                continue;
+            }
+            String inner = value.substring(i + 1, close);
+            if (isIndex(inner)) {
+                literals.add(current.toString());
+                slots.add(Integer.parseInt(inner));
+                current = new StringBuilder();
+            } else {
+                MessageTemplate nested = inner.isEmpty() ? null : resolver.apply(inner);
+                if (nested == null) {
+                    current.append(value, i, close + 1);
+                } else {
+                    current.append(nested.literals[0]);
+                    for (int s = 0; s < nested.slots.length; s++) {
+                        literals.add(current.toString());
+                        slots.add(nested.slots[s]);
+                        current = new StringBuilder(nested.literals[s + 1]);
+                    }
+                }
+            }
+            i = close + 1;
+        }
+        literals.add(current.toString());
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) slotArray[s] = slots.get(s);
+        return new MessageTemplate(literals.toArray(String[]::new), slotArray);
+    }
+
+    private static boolean isIndex(String inner) {
+        if (inner.isEmpty() || inner.length() > 9) return false;
+        for (int i = 0; i < inner.length(); i++)
+            if (!Character.isDigit(inner.charAt(i))) return false;
+        return true;
+    }
+
+    /**
+     * @param args values for the <code>{n}</code> placeholders
+     * @return the rendered message
+     */
+    public String render(Object... args) {
+        if (slots.length == 0) return literals[0];
+
+        final StringBuilder builder = new StringBuilder(length + slots.length * 16);
+        builder.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            if (args != null && slot < args.length)
+                builder.append(args[slot]);
+            else
+                builder.append('{').append(slot).append('}');
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the number of placeholders
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+
+}
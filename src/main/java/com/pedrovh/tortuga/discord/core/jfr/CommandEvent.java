@@ -0,0 +1,60 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the flight recorder events of a command, one per phase of its handling.
+ * <br>
+ * Record them with <code>jcmd &lt;pid&gt; JFR.start</code>, they are enabled by default.
+ */
+@Category({"Tortuga", "Commands"})
+@StackTrace(false)
+public abstract class CommandEvent extends Event {
+
+    public static final String SUCCESS = "success";
+    public static final String WARNING = "warning";
+    public static final String ERROR = "error";
+    public static final String NOT_FOUND = "not found";
+    public static final String REJECTED = "rejected";
+
+    @Label("Type")
+    @Description("slash or text")
+    public String type;
+
+    @Label("Command")
+    public String command;
+
+    @Label("Guild Id")
+    @Description("0 outside of guilds")
+    public long guildId;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Fills the fields and commits the event, if it's being recorded.
+     */
+    public void commit(String type, String command, long guildId, String outcome) {
+        if (!shouldCommit()) return;
+        this.type = type;
+        this.command = command;
+        this.guildId = guildId;
+        this.outcome = outcome;
+        commit();
+    }
+
+    /**
+     * @param e the exception the command failed with, <code>null</code> if it didn't
+     * @return {@link #SUCCESS}, {@link #WARNING} or {@link #ERROR}
+     */
+    public static String outcomeOf(Throwable e) {
+        if (e == null) return SUCCESS;
+        return BotException.of(e).isWarning() ? WARNING : ERROR;
+    }
+
+}
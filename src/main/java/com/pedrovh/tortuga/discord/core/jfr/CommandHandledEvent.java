@@ -0,0 +1,11 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tortuga.CommandHandle")
+@Label("Command Handled")
+@Description("From calling the handler to the completion of its stage")
+public final class CommandHandledEvent extends CommandEvent {
+}
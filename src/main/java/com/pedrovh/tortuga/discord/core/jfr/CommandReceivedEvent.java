@@ -0,0 +1,11 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tortuga.CommandReceive")
+@Label("Command Received")
+@Description("From receiving the event to dispatching it")
+public final class CommandReceivedEvent extends CommandEvent {
+}
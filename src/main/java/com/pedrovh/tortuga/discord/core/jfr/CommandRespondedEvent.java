@@ -0,0 +1,11 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tortuga.CommandRespond")
+@Label("Command Responded")
+@Description("A response sent to discord by the framework, until discord accepted it")
+public final class CommandRespondedEvent extends CommandEvent {
+}
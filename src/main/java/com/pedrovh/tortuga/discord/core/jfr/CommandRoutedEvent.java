@@ -0,0 +1,11 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tortuga.CommandRoute")
+@Label("Command Routed")
+@Description("Lookup of the handler of the command")
+public final class CommandRoutedEvent extends CommandEvent {
+}
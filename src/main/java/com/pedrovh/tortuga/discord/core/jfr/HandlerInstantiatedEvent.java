@@ -0,0 +1,11 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tortuga.HandlerInstantiate")
+@Label("Handler Instantiated")
+@Description("Creation, or lookup of the singleton, of the handler")
+public final class HandlerInstantiatedEvent extends CommandEvent {
+}
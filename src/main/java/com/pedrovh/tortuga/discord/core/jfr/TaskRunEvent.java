@@ -0,0 +1,18 @@
+package com.pedrovh.tortuga.discord.core.jfr;
+
+import jdk.jfr.*;
+
+@Name("tortuga.TaskRun")
+@Label("Task Run")
+@Description("A run of a scheduled task")
+@Category({"Tortuga", "Scheduler"})
+@StackTrace(false)
+public final class TaskRunEvent extends Event {
+
+    @Label("Task")
+    public String task;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -3,85 +3,335 @@ package com.pedrovh.tortuga.discord.core.listener;
 import com.pedrovh.tortuga.discord.core.DiscordResource;
 import com.pedrovh.tortuga.discord.core.command.BotCommandLoader;
 import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.Cooldown;
+import com.pedrovh.tortuga.discord.core.command.CooldownLimiter;
+import com.pedrovh.tortuga.discord.core.command.Lifecycle;
+import com.pedrovh.tortuga.discord.core.command.text.AsyncTextCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandContext;
 import com.pedrovh.tortuga.discord.core.command.text.TextCommandHandler;
+import com.pedrovh.tortuga.discord.core.dispatch.CommandBulkhead;
+import com.pedrovh.tortuga.discord.core.dispatch.CommandDispatcher;
+import com.pedrovh.tortuga.discord.core.dispatch.DispatchExecutors;
+import com.pedrovh.tortuga.discord.core.dispatch.Ordering;
+import com.pedrovh.tortuga.discord.core.dispatch.Priority;
+import com.pedrovh.tortuga.discord.core.exception.BotBusyException;
 import com.pedrovh.tortuga.discord.core.exception.BotException;
+import com.pedrovh.tortuga.discord.core.guild.GuildSettingsService;
+import com.pedrovh.tortuga.discord.core.jfr.*;
+import com.pedrovh.tortuga.discord.core.metrics.CommandMetrics;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import org.javacord.api.entity.DiscordEntity;
 import org.javacord.api.entity.message.Message;
 import org.javacord.api.event.message.MessageCreateEvent;
 import org.javacord.api.listener.message.MessageCreateListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 
-import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_TEXT_PREFIX;
-import static com.pedrovh.tortuga.discord.core.DiscordProperties.MESSAGE_CHARACTER_LIMIT;
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.*;
 
 /**
  * Base implementation of {@link MessageCreateListener}. Reads all messages sent by users and tries to interpret them as
- * a text {@link Command} based on the defined prefix.
+ * a text {@link Command} based on the prefix of their guild.
  */
 @SuppressWarnings("unused")
 public abstract class BaseMessageListener implements MessageCreateListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(BaseMessageListener.class);
+    private static final CompletionStage<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private final Map<Class<?>, Object> singletons = new ConcurrentHashMap<>();
+    private final boolean acceptOverridden = Overrides.isOverridden(getClass(), BaseMessageListener.class,
+            "accept", Class.class, MessageCreateEvent.class, String.class);
+    private final boolean defaultPrefixOverridden = Overrides.isOverridden(getClass(), BaseMessageListener.class, "getPrefix");
+    private final boolean prefixOverridden = defaultPrefixOverridden ||
+            Overrides.isOverridden(getClass(), BaseMessageListener.class, "getPrefix", MessageCreateEvent.class);
+    private volatile CommandDispatcher dispatcher;
+    private final LongAdder acceptedMessages = new LongAdder();
+    private final LongAdder ignoredMessages = new LongAdder();
 
     /**
      * {@inheritDoc}
+     * <br>
+     * Messages that aren't commands are ignored by {@link #validate(Message, String)} before anything is allocated.
+     * If the settings of the guild aren't loaded yet, the message is handled once they are, without holding the
+     * gateway thread.
      */
     @Override
     public void onMessageCreate(MessageCreateEvent event) {
-        final String prefix = DiscordResource.get(COMMAND_TEXT_PREFIX);
+        if (prefixOverridden) {
+            onMessageCreate(event, getPrefix(event));
+            return;
+        }
+        final var settings = GuildSettingsService.getInstance();
+        if (!settings.mayBeCommand(event.getMessage().getContent())) {
+            onMessageCreate(event, settings.getDefaultPrefix());
+            return;
+        }
+        final long guildId = event.getServer().map(DiscordEntity::getId).orElse(0L);
+        final var loaded = settings.getIfLoaded(guildId);
+        if (loaded != null)
+            onMessageCreate(event, settings.getPrefix(loaded));
+        else
+            settings.whenLoaded(guildId, guild -> onMessageCreate(event, settings.getPrefix(guild)));
+    }
+
+    private void onMessageCreate(MessageCreateEvent event, String prefix) {
         final Message message = event.getMessage();
-        String content = message.getContent();
 
-        if(!validate(message, prefix))
+        if (!validate(message, prefix)) {
+            ignoredMessages.increment();
             return;
+        }
+        acceptedMessages.increment();
+        final var receivedEvent = new CommandReceivedEvent();
+        receivedEvent.begin();
+        final long received = System.nanoTime();
+        final String content = message.getContent();
+        final long guildId = event.getServer().map(DiscordEntity::getId).orElse(0L);
 
-        if (prefix != null)
-            content = content.substring(prefix.length());
-
-        final String command = content.split(" ")[0];
-        var handlerClass = BotCommandLoader.getHandlerForText(command);
+        final var routedEvent = new CommandRoutedEvent();
+        routedEvent.begin();
+        final int offset = prefix != null ? prefix.length() : 0;
+        final var route = BotCommandLoader.getTextRouter().route(content, offset);
+        final String command = route != null ? route.command() : firstWord(content, offset);
+        final var handlerClass = route != null ? route.handler() : null;
+        routedEvent.commit(MetricsRegistry.TEXT, command, guildId, handlerClass != null ? CommandEvent.SUCCESS : CommandEvent.NOT_FOUND);
+        // built from the prefix and route resolved here, so handlers don't resolve them again
+        final var context = handlerClass != null ? TextCommandContext.of(event, prefix, route) : null;
 
-        CompletableFuture.runAsync(() -> accept(handlerClass, event, command));
+        final var dispatcher = getDispatcher();
+        dispatcher.dispatchAsync(getOrderingKey(event, dispatcher.getOrdering()),
+                guildId,
+                Priority.text(),
+                () -> {
+                    if (handlerClass != null)
+                        MetricsRegistry.getInstance().command(MetricsRegistry.TEXT, command)
+                                .queue().record(System.nanoTime() - received);
+                    final var scope = TextCommandContext.open(context);
+                    try {
+                        if (acceptOverridden) {
+                            accept(handlerClass, event, command);
+                            return COMPLETED;
+                        }
+                        return acceptAsync(handlerClass, event, command);
+                    } finally {
+                        scope.close();
+                    }
+                },
+                () -> {
+                    new CommandHandledEvent().commit(MetricsRegistry.TEXT, command, guildId, CommandEvent.REJECTED);
+                    rejected(event, command);
+                });
+        receivedEvent.commit(MetricsRegistry.TEXT, command, guildId, CommandEvent.SUCCESS);
     }
 
     /**
-     * Accepts the validated command and calls on the handler to handle the request
+     * Accepts the validated command and calls on the handler to handle the request. <br>
+     * If a subclass overrides this method, it's called instead of {@link #acceptAsync}, and the event is considered
+     * handled once it returns.
      * @param handlerClass the {@link TextCommandHandler} that will handle the command
      * @param event the message create event
      * @param command the command in requested
      */
     protected void accept(Class<? extends TextCommandHandler> handlerClass, MessageCreateEvent event, String command) {
+        acceptAsync(handlerClass, event, command);
+    }
+
+    /**
+     * Accepts the validated command and calls on the handler to handle the request, without waiting for
+     * asynchronous handlers to finish.
+     * @param handlerClass the {@link TextCommandHandler} that will handle the command
+     * @param event the message create event
+     * @param command the command in requested
+     * @return a stage completed once the handler, and the error response if it failed, are done
+     */
+    protected CompletionStage<Void> acceptAsync(Class<? extends TextCommandHandler> handlerClass, MessageCreateEvent event, String command) {
         final Message message = event.getMessage();
+        final var current = TextCommandContext.current();
+        final var context = current != null && current.event() == event ? current : null;
+        CompletionStage<?> stage;
         try {
+            stage = COMPLETED;
             if (handlerClass == null) {
                 handlerNotFound(event);
-                return;
+            } else {
+                LOG.info("User {} sent text command '{}' in {}",
+                        message.getAuthor().getName(),
+                        command,
+                        message.getChannel());
+
+                checkCooldown(handlerClass, event);
+                final var bulkhead = CommandBulkhead.of(handlerClass);
+                stage = bulkhead == null ?
+                        invoke(handlerClass, event, command, context) :
+                        bulkhead.run(() -> invoke(handlerClass, event, command, context), getExecutor(),
+                                () -> releaseCooldown(handlerClass, event));
             }
-            LOG.info("User {} sent text command '{}' in {}",
-                    message.getAuthor().getName(),
-                    command,
-                    message.getChannel());
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
 
-            var instance = getInstanceOf(handlerClass);
+        return stage.handle((result, e) -> {
+            if (handlerClass != null)
+                recordOutcome(MetricsRegistry.getInstance().command(MetricsRegistry.TEXT, command), e);
+            if (e != null) {
+                BotException bot = BotException.of(e);
+                if (bot.isWarning())
+                    LOG.warn("Error handling text command {}", command);
+                else
+                    //noinspection StringConcatenationArgumentToLogCall
+                    LOG.warn(String.format("Error handling text command %s", command), bot);
 
-            if (!instance.enabledInDMs() && !message.getChannel().getType().isServerChannelType())
-                return;
+                final long start = System.nanoTime();
+                final var respondedEvent = new CommandRespondedEvent();
+                respondedEvent.begin();
+                final var reply = respondError(event, bot);
+                if (handlerClass != null && reply != null)
+                    reply.whenComplete((r, ex) -> {
+                        MetricsRegistry.getInstance().command(MetricsRegistry.TEXT, command)
+                                .rest().record(System.nanoTime() - start);
+                        respondedEvent.commit(MetricsRegistry.TEXT, command,
+                                event.getServer().map(DiscordEntity::getId).orElse(0L),
+                                ex == null ? CommandEvent.SUCCESS : CommandEvent.ERROR);
+                    });
+            }
+            return null;
+        });
+    }
 
-            handle(instance, event);
+    /**
+     * Instantiates the handler and handles the event, if the handler is enabled in the channel.
+     * @param handlerClass the handler of the command
+     * @param event the message event
+     * @param command the command requested
+     * @param context the context built by the listener, made current while the handler is called
+     * @return the stage of the handler, failed if it threw an exception
+     */
+    private CompletionStage<?> invoke(Class<? extends TextCommandHandler> handlerClass, MessageCreateEvent event, String command,
+                                      @Nullable TextCommandContext context) {
+        final long guildId = event.getServer().map(DiscordEntity::getId).orElse(0L);
+        final var handledEvent = new CommandHandledEvent();
+        final long start = System.nanoTime();
+        CompletionStage<?> stage;
+        try {
+            final var instantiatedEvent = new HandlerInstantiatedEvent();
+            instantiatedEvent.begin();
+            var instance = getHandlerInstance(handlerClass);
+            instantiatedEvent.commit(MetricsRegistry.TEXT, command, guildId, CommandEvent.SUCCESS);
+
+            if (!instance.enabledInDMs() && !event.getChannel().getType().isServerChannelType()) {
+                releaseCooldown(handlerClass, event);
+                return COMPLETED;
+            }
+            handledEvent.begin();
+            final var scope = TextCommandContext.open(context);
+            try {
+                stage = handleAsync(instance, event);
+            } finally {
+                scope.close();
+            }
+            if (stage == null)
+                stage = COMPLETED;
         } catch (Exception e) {
-            BotException bot = e instanceof BotException ? (BotException) e : new BotException(e); // NOSONAR
-            if (bot.isWarning())
-                LOG.warn("Error handling text command {}", command);
-            else
-                //noinspection StringConcatenationArgumentToLogCall
-                LOG.warn(String.format("Error handling text command %s", command), e);
-
-            message.reply(bot.getEmbed());
+            stage = CompletableFuture.failedFuture(e);
+        }
+        final var metrics = MetricsRegistry.getInstance().command(MetricsRegistry.TEXT, command);
+        return stage.whenComplete((r, e) -> {
+            metrics.handler().record(System.nanoTime() - start);
+            handledEvent.commit(MetricsRegistry.TEXT, command, guildId, CommandEvent.outcomeOf(e));
+        });
+    }
+
+    private static void recordOutcome(CommandMetrics metrics, Throwable e) {
+        metrics.invocations().increment();
+        if (e != null) {
+            if (BotException.of(e).isWarning()) metrics.warnings().increment();
+            else metrics.errors().increment();
         }
     }
 
+    /**
+     * Takes a permit from the {@link Cooldown}s of the handler, before it's instantiated.
+     * @param handlerClass the handler of the command
+     * @param event the message event
+     * @throws BotException if the command is on cooldown
+     */
+    protected void checkCooldown(Class<?> handlerClass, MessageCreateEvent event) throws BotException {
+        CooldownLimiter.acquire(handlerClass,
+                event.getMessageAuthor().getId(),
+                event.getServer().map(DiscordEntity::getId).orElse(event.getChannel().getId()));
+    }
+
+    /**
+     * Gives back the permits taken by {@link #checkCooldown} when the command doesn't run after all, like when it's
+     * used in DMs but not enabled there, or its {@link com.pedrovh.tortuga.discord.core.command.Bulkhead} is full.
+     * @param handlerClass the handler of the command
+     * @param event the message event
+     */
+    protected void releaseCooldown(Class<?> handlerClass, MessageCreateEvent event) {
+        CooldownLimiter.release(handlerClass,
+                event.getMessageAuthor().getId(),
+                event.getServer().map(DiscordEntity::getId).orElse(event.getChannel().getId()));
+    }
+
+    /**
+     * Executes {@link AsyncTextCommandHandler#handleAsync(MessageCreateEvent)} if the handler is asynchronous,
+     * otherwise {@link #handle(TextCommandHandler, MessageCreateEvent)}.
+     * @param handler the command handler
+     * @param event the message event
+     * @return the stage of the asynchronous handler, or a completed one. <code>null</code> is taken as completed
+     * @throws BotException in case something goes wrong
+     */
+    protected CompletionStage<?> handleAsync(TextCommandHandler handler, MessageCreateEvent event) throws BotException {
+        if (handler instanceof AsyncTextCommandHandler async)
+            return async.handleAsync(event);
+        handle(handler, event);
+        return COMPLETED;
+    }
+
+    /**
+     * Replies to the message with the embed of the exception.
+     * @param event the message event
+     * @param bot the exception
+     * @return a future completed when the reply is sent
+     */
+    protected CompletableFuture<?> respondError(MessageCreateEvent event, BotException bot) {
+        return event.getMessage().reply(bot.getEmbed(getLocale(event)));
+    }
+
+    /**
+     * Waits for the settings of the guild if they aren't loaded yet, which they are once a command is dispatched.
+     * @param event the message event
+     * @return the locale of the guild the message was sent in
+     */
+    protected Locale getLocale(MessageCreateEvent event) {
+        return GuildSettingsService.getInstance().getLocale(event.getServer().map(DiscordEntity::getId).orElse(0L));
+    }
+
+    /**
+     * Called instead of {@link #accept} when the event is shed because the bot is overloaded.
+     * Replies with a {@link BotBusyException} if <code>dispatch.queue.reply</code> is true, once the settings of the
+     * guild are loaded, since it may run on the gateway thread.
+     * @param event the message event
+     * @param command the command requested
+     */
+    protected void rejected(MessageCreateEvent event, String command) {
+        LOG.warn("Text command '{}' was shed, the bot is overloaded", command);
+        if (Boolean.TRUE.equals(DiscordResource.getBoolean(DISPATCH_QUEUE_REPLY, false)))
+            GuildSettingsService.getInstance().whenLoaded(event.getServer().map(DiscordEntity::getId).orElse(0L),
+                    settings -> respondError(event, new BotBusyException()));
+    }
+
     /**
      * Executes the {@link TextCommandHandler#handle(MessageCreateEvent)} of the handler.
      * @param handler the command handler
@@ -92,6 +342,11 @@ public abstract class BaseMessageListener implements MessageCreateListener {
         handler.handle(event);
     }
 
+    private static String firstWord(String content, int offset) {
+        int end = content.indexOf(' ', offset);
+        return content.substring(offset, end < 0 ? content.length() : end);
+    }
+
     /**
      * Override this method if you have some logic in case the handler is not found.
      * This is useful if you wish to interpret all messages, independent if it was a command or had a prefix.
@@ -105,20 +360,130 @@ public abstract class BaseMessageListener implements MessageCreateListener {
     }
 
     /**
-     * Validates if the bot should try to understand the message
+     * Validates if the bot should try to understand the message.
+     * Checks are ordered from the cheapest, and none of them allocate, since most messages are not commands.
      * @param message the message object
      * @return True if the bot should understand the message as a command
      */
     protected boolean validate(final Message message, final String prefix) {
-        var author = message.getAuthor();
-        var content = message.getContent();
+        final var content = message.getContent();
+        if (prefix == null ||
+            content == null ||
+            content.isEmpty() ||
+            content.length() >= DiscordResource.config().messageCharacterLimit() ||
+            !content.startsWith(prefix))
+            return false;
 
+        final var author = message.getAuthor();
         return author != null &&
-               !author.isYourself() &&
-               content != null &&
-               !content.isEmpty() &&
-               content.length() < DiscordResource.getInt(MESSAGE_CHARACTER_LIMIT, 4_000) &&
-               (prefix != null && content.startsWith(prefix));
+               author.getId() != message.getApi().getYourself().getId();
+    }
+
+    /**
+     * The prefix of the guild the message was sent in. Messages that can't start with any known prefix get
+     * <code>command.text.prefix</code> without looking up their guild. <br>
+     * The listener only calls this method if a subclass overrides it or {@link #getPrefix()}, since it waits for the
+     * settings of the guild to be loaded. Otherwise, they're resolved without holding the gateway thread.
+     * @param event the message event
+     * @return the text command prefix
+     * @see GuildSettingsService
+     */
+    protected String getPrefix(MessageCreateEvent event) {
+        if (defaultPrefixOverridden)
+            return getPrefix();
+        final var settings = GuildSettingsService.getInstance();
+        if (!settings.mayBeCommand(event.getMessage().getContent()))
+            return settings.getDefaultPrefix();
+        return settings.getPrefix(event.getServer().map(DiscordEntity::getId).orElse(0L));
+    }
+
+    /**
+     * The prefix of guilds that don't have one of their own. Overriding it makes it the prefix of every guild.
+     * @return the text command prefix, <code>command.text.prefix</code> by default
+     */
+    protected String getPrefix() {
+        return GuildSettingsService.getInstance().getDefaultPrefix();
+    }
+
+    /**
+     * @return the number of messages that passed {@link #validate(Message, String)}
+     */
+    public long getAcceptedCount() {
+        return acceptedMessages.sum();
+    }
+
+    /**
+     * @return the number of messages ignored by {@link #validate(Message, String)}
+     */
+    public long getIgnoredCount() {
+        return ignoredMessages.sum();
+    }
+
+    /**
+     * The dispatcher that orders and hands events to {@link #getExecutor()}. Created on first use, along with the
+     * gauges of this listener.
+     * @return the dispatcher of this listener
+     */
+    protected CommandDispatcher getDispatcher() {
+        var current = dispatcher;
+        if (current == null) {
+            synchronized (this) {
+                current = dispatcher;
+                if (current == null) {
+                    dispatcher = current = new CommandDispatcher(getExecutor());
+                    current.registerMetrics(getClass().getName());
+                    registerMetrics();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Registers gauges of the accepted and ignored messages in the {@link MetricsRegistry}. Not done on construction,
+     * so <code>this</code> doesn't escape before subclasses are initialized.
+     */
+    private void registerMetrics() {
+        final var metrics = MetricsRegistry.getInstance();
+        metrics.gauge("tortuga.messages.accepted", this::getAcceptedCount, "listener", getClass().getName());
+        metrics.gauge("tortuga.messages.ignored", this::getIgnoredCount, "listener", getClass().getName());
+    }
+
+    /**
+     * The key that keeps events in order, according to <code>dispatch.ordering</code>.
+     * @param event the message event
+     * @param ordering the ordering of the dispatcher
+     * @return the id of the channel or server of the event
+     */
+    protected long getOrderingKey(MessageCreateEvent event, Ordering ordering) {
+        return switch (ordering) {
+            case NONE -> 0L;
+            case CHANNEL -> event.getChannel().getId();
+            case GUILD -> event.getServer().map(DiscordEntity::getId).orElse(event.getChannel().getId());
+        };
+    }
+
+    /**
+     * The executor that will run {@link #accept} for each event. Defaults to the one configured by
+     * <code>dispatch.executor</code>, shared by all listeners. Override it to use your own.
+     * @return the dispatch executor
+     */
+    protected Executor getExecutor() {
+        return DispatchExecutors.getDefault();
+    }
+
+    /**
+     * Gets the instance that will handle the event, according to the {@link Lifecycle} of the handler.
+     * {@link Lifecycle#SINGLETON} handlers are created once through {@link #getInstanceOf(Class)} and reused afterwards.
+     *
+     * @param clazz the handler class
+     * @return the instance of <code>clazz</code>
+     * @param <T> the Type of the handler
+     */
+    protected <T> T getHandlerInstance(Class<T> clazz) {
+        if (BotCommandLoader.getLifecycle(clazz) == Lifecycle.SINGLETON)
+            return clazz.cast(singletons.computeIfAbsent(clazz, this::getInstanceOf));
+        return getInstanceOf(clazz);
     }
 
     /**
@@ -133,7 +498,7 @@ public abstract class BaseMessageListener implements MessageCreateListener {
     @SuppressWarnings("java:S112")
     protected <T> T getInstanceOf(Class<T> clazz) {
         try {
-            return clazz.getDeclaredConstructor().newInstance();
+            return ComponentFactory.newInstance(clazz);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
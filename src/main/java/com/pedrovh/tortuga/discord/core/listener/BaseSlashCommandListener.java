@@ -1,69 +1,314 @@
 package com.pedrovh.tortuga.discord.core.listener;
 
+import com.pedrovh.tortuga.discord.core.DiscordResource;
 import com.pedrovh.tortuga.discord.core.command.BotCommandLoader;
 import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.Cooldown;
+import com.pedrovh.tortuga.discord.core.command.CooldownLimiter;
+import com.pedrovh.tortuga.discord.core.command.Lifecycle;
+import com.pedrovh.tortuga.discord.core.command.slash.AsyncSlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.slash.InteractionResponder;
 import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.dispatch.CommandBulkhead;
+import com.pedrovh.tortuga.discord.core.dispatch.CommandDispatcher;
+import com.pedrovh.tortuga.discord.core.dispatch.DispatchExecutors;
+import com.pedrovh.tortuga.discord.core.dispatch.Ordering;
+import com.pedrovh.tortuga.discord.core.dispatch.Priority;
+import com.pedrovh.tortuga.discord.core.exception.BotBusyException;
 import com.pedrovh.tortuga.discord.core.exception.BotException;
+import com.pedrovh.tortuga.discord.core.guild.GuildSettingsService;
+import com.pedrovh.tortuga.discord.core.jfr.*;
+import com.pedrovh.tortuga.discord.core.metrics.CommandMetrics;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import org.javacord.api.entity.DiscordEntity;
 import org.javacord.api.event.interaction.SlashCommandCreateEvent;
 import org.javacord.api.listener.interaction.SlashCommandCreateListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.COMMAND_SLASH_DEFER_THRESHOLD;
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.DISPATCH_QUEUE_REPLY;
 
 /**
  * Base implementation of {@link SlashCommandCreateListener} and is required for the {@link Command} annotation to work as intended. <br>
  * All classes annotated with {@link Command} that implement {@link SlashCommandHandler} will be added to the handlers cache. <br>
  * When a {@link SlashCommandCreateEvent} is created, the handler is instantiated through {@link BaseSlashCommandListener#getInstanceOf(Class)}
- * to handle the request. Override that method if you wish to control how the handler is instantiated.
+ * to handle the request, or reused if its {@link Command#lifecycle()} is {@link Lifecycle#SINGLETON}.
+ * Override that method if you wish to control how the handler is instantiated.
  */
 @SuppressWarnings("unused")
 public abstract class BaseSlashCommandListener implements SlashCommandCreateListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(BaseSlashCommandListener.class);
+    private static final CompletionStage<Void> COMPLETED = CompletableFuture.completedFuture(null);
+    /**
+     * Time left before the interaction expires when it's deferred at the latest, for the request to reach discord.
+     */
+    private static final long DEFER_MARGIN = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final Map<Class<?>, Object> singletons = new ConcurrentHashMap<>();
+    private final boolean acceptOverridden = Overrides.isOverridden(getClass(), BaseSlashCommandListener.class,
+            "accept", Class.class, SlashCommandCreateEvent.class);
+    private volatile CommandDispatcher dispatcher;
 
     /**
      * {@inheritDoc}
      */
     @Override
     public void onSlashCommandCreate(SlashCommandCreateEvent event) {
+        final var receivedEvent = new CommandReceivedEvent();
+        receivedEvent.begin();
         final var interaction = event.getSlashCommandInteraction();
         LOG.info("Slash command '{}' sent by '{}' in '{}'",
                 interaction.getFullCommandName(),
                 interaction.getUser().getName(),
                 interaction.getChannel());
 
-        final var handlerClass = BotCommandLoader.getHandlerForSlash(interaction.getCommandName());
-        CompletableFuture.runAsync(() -> accept(handlerClass, event));
+        final long received = System.nanoTime();
+        final String command = interaction.getCommandName();
+        final long guildId = interaction.getServer().map(DiscordEntity::getId).orElse(0L);
+
+        final var routedEvent = new CommandRoutedEvent();
+        routedEvent.begin();
+        final var handlerClass = BotCommandLoader.getHandlerForSlash(command);
+        routedEvent.commit(MetricsRegistry.SLASH, command, guildId, handlerClass != null ? CommandEvent.SUCCESS : CommandEvent.NOT_FOUND);
+
+        final var priority = Priority.interaction();
+        final var dispatcher = getDispatcher();
+        dispatcher.dispatchAsync(getOrderingKey(event, dispatcher.getOrdering()),
+                guildId,
+                priority,
+                () -> {
+                    if (handlerClass != null)
+                        MetricsRegistry.getInstance().command(MetricsRegistry.SLASH, command)
+                                .queue().record(System.nanoTime() - received);
+                    if (acceptOverridden) {
+                        accept(handlerClass, event);
+                        return COMPLETED;
+                    }
+                    return acceptAsync(handlerClass, event, priority);
+                },
+                () -> {
+                    new CommandHandledEvent().commit(MetricsRegistry.SLASH, command, guildId, CommandEvent.REJECTED);
+                    rejected(event);
+                });
+        receivedEvent.commit(MetricsRegistry.SLASH, command, guildId, CommandEvent.SUCCESS);
     }
 
     /**
-     * Accepts the validated command and calls on the handler to handle the request
+     * Accepts the validated command and calls on the handler to handle the request. <br>
+     * If a subclass overrides this method, it's called instead of {@link #acceptAsync}, and the event is considered
+     * handled once it returns.
      * @param handlerClass the {@link SlashCommandHandler} that will handle the command
      * @param event the slash command event
      */
     protected void accept(Class<? extends SlashCommandHandler> handlerClass, SlashCommandCreateEvent event) {
+        acceptAsync(handlerClass, event, Priority.interaction());
+    }
+
+    /**
+     * Accepts the validated command and calls on the handler to handle the request, without waiting for
+     * asynchronous handlers to finish.
+     * @param handlerClass the {@link SlashCommandHandler} that will handle the command
+     * @param event the slash command event
+     * @param priority the deadline to acknowledge the interaction by, set when it was received
+     * @return a stage completed once the handler, and the error response if it failed, are done
+     */
+    protected CompletionStage<Void> acceptAsync(Class<? extends SlashCommandHandler> handlerClass, SlashCommandCreateEvent event, Priority priority) {
         final var interaction = event.getSlashCommandInteraction();
+        final var deferral = scheduleDeferral(event, priority);
+        CompletionStage<?> stage;
         try {
             if (handlerClass == null) {
                 handlerNotFound(event);
-                return;
+                stage = COMPLETED;
+            } else {
+                checkCooldown(handlerClass, event);
+                final var bulkhead = CommandBulkhead.of(handlerClass);
+                stage = bulkhead == null ?
+                        invoke(handlerClass, event) :
+                        bulkhead.run(() -> invoke(handlerClass, event), getExecutor(),
+                                () -> releaseCooldown(handlerClass, event));
             }
-            handle(getInstanceOf(handlerClass), event);
         } catch (Exception e) {
-            BotException bot = e instanceof BotException ? (BotException) e : new BotException(e); // NOSONAR
-            if (bot.isWarning())
-                LOG.warn("Error handling slash command {}", interaction.getFullCommandName());
-            else
-                LOG.error("Error handling slash command {}", interaction.getFullCommandName(), e);
-
-            var responder = interaction
-                    .createImmediateResponder()
-                    .addEmbed(bot.getEmbed());
-            if (bot.getFlags() != null)
-                responder.setFlags(bot.getFlags());
-            responder
-                    .respond();
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        return stage.handle((result, e) -> {
+            try {
+                if (handlerClass != null)
+                    recordOutcome(MetricsRegistry.getInstance().command(MetricsRegistry.SLASH, interaction.getCommandName()), e);
+                if (e != null) {
+                    BotException bot = BotException.of(e);
+                    if (bot.isWarning())
+                        LOG.warn("Error handling slash command {}", interaction.getFullCommandName());
+                    else
+                        LOG.error("Error handling slash command {}", interaction.getFullCommandName(), bot);
+
+                    respondError(event, bot);
+                }
+            } finally {
+                if (deferral != null)
+                    deferral.cancel(false);
+                InteractionResponder.release(interaction);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Instantiates the handler and handles the event.
+     * @param handlerClass the handler of the command
+     * @param event the slash command event
+     * @return the stage of the handler, failed if it threw an exception
+     */
+    private CompletionStage<?> invoke(Class<? extends SlashCommandHandler> handlerClass, SlashCommandCreateEvent event) {
+        final var interaction = event.getSlashCommandInteraction();
+        final String command = interaction.getCommandName();
+        final long guildId = interaction.getServer().map(DiscordEntity::getId).orElse(0L);
+        final var metrics = MetricsRegistry.getInstance().command(MetricsRegistry.SLASH, command);
+        final var handledEvent = new CommandHandledEvent();
+        final long start = System.nanoTime();
+        CompletionStage<?> stage;
+        try {
+            final var instantiatedEvent = new HandlerInstantiatedEvent();
+            instantiatedEvent.begin();
+            final var handler = getHandlerInstance(handlerClass);
+            instantiatedEvent.commit(MetricsRegistry.SLASH, command, guildId, CommandEvent.SUCCESS);
+
+            handledEvent.begin();
+            stage = handleAsync(handler, event);
+            if (stage == null)
+                stage = COMPLETED;
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        return stage.whenComplete((r, e) -> {
+            metrics.handler().record(System.nanoTime() - start);
+            handledEvent.commit(MetricsRegistry.SLASH, command, guildId, CommandEvent.outcomeOf(e));
+        });
+    }
+
+    private static void recordOutcome(CommandMetrics metrics, Throwable e) {
+        metrics.invocations().increment();
+        if (e != null) {
+            if (BotException.of(e).isWarning()) metrics.warnings().increment();
+            else metrics.errors().increment();
+        }
+    }
+
+    /**
+     * Takes a permit from the {@link Cooldown}s of the handler, before it's instantiated.
+     * @param handlerClass the handler of the command
+     * @param event the slash command event
+     * @throws BotException if the command is on cooldown
+     */
+    protected void checkCooldown(Class<?> handlerClass, SlashCommandCreateEvent event) throws BotException {
+        final var interaction = event.getSlashCommandInteraction();
+        CooldownLimiter.acquire(handlerClass,
+                interaction.getUser().getId(),
+                interaction.getServer().map(DiscordEntity::getId).orElse(interaction.getChannel().map(DiscordEntity::getId).orElse(0L)));
+    }
+
+    /**
+     * Gives back the permits taken by {@link #checkCooldown} when the command doesn't run after all, like when its
+     * {@link com.pedrovh.tortuga.discord.core.command.Bulkhead} is full.
+     * @param handlerClass the handler of the command
+     * @param event the slash command event
+     */
+    protected void releaseCooldown(Class<?> handlerClass, SlashCommandCreateEvent event) {
+        final var interaction = event.getSlashCommandInteraction();
+        CooldownLimiter.release(handlerClass,
+                interaction.getUser().getId(),
+                interaction.getServer().map(DiscordEntity::getId).orElse(interaction.getChannel().map(DiscordEntity::getId).orElse(0L)));
+    }
+
+    /**
+     * Executes {@link AsyncSlashCommandHandler#handleAsync(SlashCommandCreateEvent)} if the handler is asynchronous,
+     * otherwise {@link #handle(SlashCommandHandler, SlashCommandCreateEvent)}.
+     * @param handler the command handler
+     * @param event the slash command event
+     * @return the stage of the asynchronous handler, or a completed one. <code>null</code> is taken as completed
+     * @throws BotException in case something goes wrong
+     */
+    protected CompletionStage<?> handleAsync(SlashCommandHandler handler, SlashCommandCreateEvent event) throws BotException {
+        if (handler instanceof AsyncSlashCommandHandler async)
+            return async.handleAsync(event);
+        handle(handler, event);
+        return COMPLETED;
+    }
+
+    /**
+     * Schedules the deferral of the interaction response if <code>command.slash.defer.threshold</code> is positive,
+     * so it's acknowledged in time even if the handler takes longer than that to respond.
+     * Handlers must respond through the {@link InteractionResponder} for this to be transparent to them.
+     * <br>
+     * The threshold counts from when the interaction was received, not from when its handler starts, since it may
+     * have waited in the dispatch queue. The deferral happens at the latest half a second before the deadline, and
+     * right away if that time already passed.
+     * @param event the slash command event
+     * @param priority the deadline to acknowledge the interaction by, set when it was received
+     * @return the scheduled deferral, or <code>null</code> if automatic deferral is disabled or already happened
+     */
+    protected ScheduledFuture<?> scheduleDeferral(SlashCommandCreateEvent event, Priority priority) {
+        int threshold = DiscordResource.getInt(COMMAND_SLASH_DEFER_THRESHOLD, 0);
+        if (threshold <= 0)
+            return null;
+        final long received = priority.deadline() - Priority.INTERACTION_WINDOW;
+        final long deferAt = received + Math.min(TimeUnit.MILLISECONDS.toNanos(threshold), Priority.INTERACTION_WINDOW - DEFER_MARGIN);
+        return InteractionResponder.of(event.getSlashCommandInteraction()).deferAfter(deferAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Responds to the interaction with the embed of the exception, through its {@link InteractionResponder}.
+     * @param event the slash command event
+     * @param bot the exception
+     * @return a future completed when the response is sent
+     */
+    protected CompletableFuture<?> respondError(SlashCommandCreateEvent event, BotException bot) {
+        final var embed = bot.getEmbed(getLocale(event));
+        return InteractionResponder.of(event.getSlashCommandInteraction())
+                .respond(message -> {
+                    message.addEmbed(embed);
+                    if (bot.getFlags() != null)
+                        message.setFlags(bot.getFlags());
+                });
+    }
+
+    /**
+     * @param event the slash command event
+     * @return the locale of the guild the command was sent in
+     */
+    protected Locale getLocale(SlashCommandCreateEvent event) {
+        return GuildSettingsService.getInstance()
+                .getLocale(event.getSlashCommandInteraction().getServer().map(DiscordEntity::getId).orElse(0L));
+    }
+
+    /**
+     * Called instead of {@link #accept} when the event is shed because the bot is overloaded.
+     * Responds with a {@link BotBusyException} if <code>dispatch.queue.reply</code> is true, once the settings of the
+     * guild are loaded, since it may run on the gateway thread.
+     * @param event the slash command event
+     */
+    protected void rejected(SlashCommandCreateEvent event) {
+        LOG.warn("Slash command '{}' was shed, the bot is overloaded", event.getSlashCommandInteraction().getFullCommandName());
+        if (Boolean.TRUE.equals(DiscordResource.getBoolean(DISPATCH_QUEUE_REPLY, false))) {
+            GuildSettingsService.getInstance().whenLoaded(
+                    event.getSlashCommandInteraction().getServer().map(DiscordEntity::getId).orElse(0L),
+                    settings -> {
+                        respondError(event, new BotBusyException());
+                        InteractionResponder.release(event.getSlashCommandInteraction());
+                    });
         }
     }
 
@@ -86,6 +331,65 @@ public abstract class BaseSlashCommandListener implements SlashCommandCreateList
         LOG.error("Slash handler not found for command '{}'", event.getSlashCommandInteraction().getCommandName());
     }
 
+    /**
+     * The dispatcher that orders and hands events to {@link #getExecutor()}. Created on first use.
+     * @return the dispatcher of this listener
+     */
+    protected CommandDispatcher getDispatcher() {
+        var current = dispatcher;
+        if (current == null) {
+            synchronized (this) {
+                current = dispatcher;
+                if (current == null) {
+                    dispatcher = current = new CommandDispatcher(getExecutor());
+                    current.registerMetrics(getClass().getName());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The key that keeps events in order, according to <code>dispatch.ordering</code>.
+     * @param event the slash command event
+     * @param ordering the ordering of the dispatcher
+     * @return the id of the channel or server of the event
+     */
+    protected long getOrderingKey(SlashCommandCreateEvent event, Ordering ordering) {
+        final var interaction = event.getSlashCommandInteraction();
+        return switch (ordering) {
+            case NONE -> 0L;
+            case CHANNEL -> interaction.getChannel().map(DiscordEntity::getId).orElse(interaction.getUser().getId());
+            case GUILD -> interaction.getServer()
+                    .map(DiscordEntity::getId)
+                    .or(() -> interaction.getChannel().map(DiscordEntity::getId))
+                    .orElse(interaction.getUser().getId());
+        };
+    }
+
+    /**
+     * The executor that will run {@link #accept} for each event. Defaults to the one configured by
+     * <code>dispatch.executor</code>, shared by all listeners. Override it to use your own.
+     * @return the dispatch executor
+     */
+    protected Executor getExecutor() {
+        return DispatchExecutors.getDefault();
+    }
+
+    /**
+     * Gets the instance that will handle the event, according to the {@link Lifecycle} of the handler.
+     * {@link Lifecycle#SINGLETON} handlers are created once through {@link #getInstanceOf(Class)} and reused afterwards.
+     *
+     * @param clazz the handler class
+     * @return the instance of <code>clazz</code>
+     * @param <T> the Type of the handler
+     */
+    protected <T> T getHandlerInstance(Class<T> clazz) {
+        if (BotCommandLoader.getLifecycle(clazz) == Lifecycle.SINGLETON)
+            return clazz.cast(singletons.computeIfAbsent(clazz, this::getInstanceOf));
+        return getInstanceOf(clazz);
+    }
+
     /**
      * Creates a new instance of the class <code>clazz</code>. <br>
      * You can override this method if you want to have control over how your slash handlers
@@ -97,7 +401,7 @@ public abstract class BaseSlashCommandListener implements SlashCommandCreateList
      */
     protected <T> T getInstanceOf(Class<T> clazz) {
         try {
-            return clazz.getDeclaredConstructor().newInstance();
+            return ComponentFactory.newInstance(clazz);
         } catch (Exception e) {
             LOG.error("Error instantiating class {}", clazz.getName(), e);
             return null;
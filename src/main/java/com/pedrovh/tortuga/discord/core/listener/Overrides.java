@@ -0,0 +1,30 @@
+package com.pedrovh.tortuga.discord.core.listener;
+
+/**
+ * Finds out whether a subclass overrides a method of its base listener, so the listeners keep calling
+ * extension points that were replaced by newer ones when a subclass still overrides them.
+ */
+final class Overrides {
+
+    private Overrides() {}
+
+    /**
+     * @param type the class of the instance
+     * @param base the class that declares the method
+     * @param name the name of the method
+     * @param parameters the parameter types of the method
+     * @return true if a class between <code>type</code> and <code>base</code> declares the method
+     */
+    static boolean isOverridden(Class<?> type, Class<?> base, String name, Class<?>... parameters) {
+        for (Class<?> current = type; current != null && current != base; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod(name, parameters);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared here, look in the superclass
+            }
+        }
+        return false;
+    }
+
+}
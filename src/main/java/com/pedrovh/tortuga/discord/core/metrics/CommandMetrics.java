@@ -0,0 +1,56 @@
+package com.pedrovh.tortuga.discord.core.metrics;
+
+/**
+ * Metrics of a command, for one type of event.
+ * <ul>
+ *     <li><code>tortuga.command.invocations</code>, <code>tortuga.command.errors</code> and
+ *     <code>tortuga.command.warnings</code> count how it finished</li>
+ *     <li><code>tortuga.command.queue</code> is the time from receiving the event to starting to handle it</li>
+ *     <li><code>tortuga.command.handler</code> is the time the handler took, until its stage completed</li>
+ *     <li><code>tortuga.command.rest</code> is the time discord took to accept the responses sent by the framework</li>
+ * </ul>
+ * All of them are tagged with <code>type</code> and <code>command</code>.
+ */
+public final class CommandMetrics {
+
+    private final Counter invocations;
+    private final Counter errors;
+    private final Counter warnings;
+    private final Histogram queue;
+    private final Histogram handler;
+    private final Histogram rest;
+
+    CommandMetrics(MetricsRegistry registry, String type, String command) {
+        this.invocations = registry.counter("tortuga.command.invocations", "type", type, "command", command);
+        this.errors = registry.counter("tortuga.command.errors", "type", type, "command", command);
+        this.warnings = registry.counter("tortuga.command.warnings", "type", type, "command", command);
+        this.queue = registry.histogram("tortuga.command.queue", "type", type, "command", command);
+        this.handler = registry.histogram("tortuga.command.handler", "type", type, "command", command);
+        this.rest = registry.histogram("tortuga.command.rest", "type", type, "command", command);
+    }
+
+    public Counter invocations() {
+        return invocations;
+    }
+
+    public Counter errors() {
+        return errors;
+    }
+
+    public Counter warnings() {
+        return warnings;
+    }
+
+    public Histogram queue() {
+        return queue;
+    }
+
+    public Histogram handler() {
+        return handler;
+    }
+
+    public Histogram rest() {
+        return rest;
+    }
+
+}
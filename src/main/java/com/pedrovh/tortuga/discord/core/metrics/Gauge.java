@@ -0,0 +1,20 @@
+package com.pedrovh.tortuga.discord.core.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value read when the metrics are exported, e.g. the size of a queue or a count kept elsewhere.
+ */
+public final class Gauge implements Metric {
+
+    private final DoubleSupplier value;
+
+    Gauge(DoubleSupplier value) {
+        this.value = value;
+    }
+
+    public double value() {
+        return value.getAsDouble();
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.pedrovh.tortuga.discord.core.metrics;
+
+/**
+ * A value kept by the {@link MetricsRegistry}.
+ */
+public sealed interface Metric permits Counter, Gauge, Histogram {
+}
@@ -0,0 +1,36 @@
+package com.pedrovh.tortuga.discord.core.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Name and tags of a {@link Metric}.
+ *
+ * @param name the name of the metric, e.g. <code>tortuga.command.handler</code>
+ * @param tags the tags of the metric, e.g. <code>command=ping</code>
+ */
+public record MetricId(String name, Map<String, String> tags) {
+
+    /**
+     * @param name the name of the metric
+     * @param tags alternating tag names and values
+     * @return the id of the metric
+     */
+    public static MetricId of(String name, String... tags) {
+        if (tags.length % 2 != 0)
+            throw new IllegalArgumentException("Tags must be pairs of name and value");
+        if (tags.length == 0)
+            return new MetricId(name, Map.of());
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < tags.length; i += 2)
+            map.put(tags[i], tags[i + 1]);
+        return new MetricId(name, Collections.unmodifiableMap(map));
+    }
+
+    @Override
+    public String toString() {
+        return tags.isEmpty() ? name : name + tags;
+    }
+
+}
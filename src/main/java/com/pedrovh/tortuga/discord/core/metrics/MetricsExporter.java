@@ -0,0 +1,17 @@
+package com.pedrovh.tortuga.discord.core.metrics;
+
+/**
+ * Publishes the metrics somewhere, e.g. to a monitoring system.
+ * <br>
+ * Implementations are found with {@link java.util.ServiceLoader}, listed in
+ * <code>META-INF/services/com.pedrovh.tortuga.discord.core.metrics.MetricsExporter</code>, and called every
+ * <code>metrics.export.interval</code> seconds (60 by default).
+ */
+public interface MetricsExporter {
+
+    /**
+     * @param registry the registry with all metrics
+     */
+    void export(MetricsRegistry registry);
+
+}
@@ -0,0 +1,118 @@
+package com.pedrovh.tortuga.discord.core.metrics;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.METRICS_EXPORT_INTERVAL;
+
+/**
+ * Keeps the metrics of the bot in memory, by {@link MetricId}.
+ * <br>
+ * Metrics are created on first use and live as long as the application. Look them up once and keep them where they
+ * are recorded, as {@link #command(String, String)} does for each command.
+ *
+ * @see MetricsExporter
+ */
+public class MetricsRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    public static final String SLASH = "slash";
+    public static final String TEXT = "text";
+
+    private final Map<MetricId, Metric> metrics = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, CommandMetrics>> commands = new ConcurrentHashMap<>();
+
+    MetricsRegistry() {}
+
+    private static final class Holder {
+        private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+        static {
+            INSTANCE.startExporters();
+        }
+    }
+
+    public static MetricsRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // region metrics
+
+    public Counter counter(String name, String... tags) {
+        return get(MetricId.of(name, tags), Counter.class, Counter::new);
+    }
+
+    public Histogram histogram(String name, String... tags) {
+        return get(MetricId.of(name, tags), Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Registers a value read on export. A gauge already registered with the same id is replaced.
+     *
+     * @param name  the name of the metric
+     * @param value reads the value
+     * @param tags  alternating tag names and values
+     */
+    public void gauge(String name, DoubleSupplier value, String... tags) {
+        metrics.put(MetricId.of(name, tags), new Gauge(value));
+    }
+
+    /**
+     * @param type    the type of event, {@link #SLASH} or {@link #TEXT}
+     * @param command the name of the command
+     * @return the metrics of the command
+     */
+    public CommandMetrics command(String type, String command) {
+        return commands
+                .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(command, c -> new CommandMetrics(this, type, c));
+    }
+
+    /**
+     * @return every metric, by id
+     */
+    public Map<MetricId, Metric> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    private <T extends Metric> T get(MetricId id, Class<T> type, Supplier<T> factory) {
+        Metric metric = metrics.computeIfAbsent(id, i -> factory.get());
+        if (!type.isInstance(metric))
+            throw new IllegalArgumentException(String.format("Metric %s is a %s", id, metric.getClass().getSimpleName()));
+        return type.cast(metric);
+    }
+
+    // endregion
+
+    private void startExporters() {
+        final List<MetricsExporter> exporters = new ArrayList<>();
+        ServiceLoader.load(MetricsExporter.class).forEach(exporters::add);
+        if (exporters.isEmpty()) return;
+
+        final int interval = DiscordResource.config().getInt(METRICS_EXPORT_INTERVAL, 60);
+        LOG.info("Exporting metrics every {}s to {}", interval, exporters);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "tortuga-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> exporters.forEach(exporter -> {
+            try {
+                exporter.export(this);
+            } catch (RuntimeException e) {
+                LOG.error("Error exporting metrics to {}", exporter, e);
+            }
+        }), interval, interval, TimeUnit.SECONDS);
+    }
+
+}
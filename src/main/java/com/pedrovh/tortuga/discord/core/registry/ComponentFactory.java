@@ -0,0 +1,90 @@
+package com.pedrovh.tortuga.discord.core.registry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+
+/**
+ * Creates instances of components through their no-args constructor without reflection on every call.
+ * <br>
+ * A {@link Supplier} is resolved once per class and cached: it's spun with {@link LambdaMetafactory}, so the JIT can
+ * inline the constructor call, or, if the class can't be linked that way, it invokes a cached {@link MethodHandle}.
+ */
+public final class ComponentFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ComponentFactory.class);
+    private static final MethodType SUPPLIER_FACTORY = MethodType.methodType(Supplier.class);
+    private static final MethodType SUPPLIER_GET = MethodType.methodType(Object.class);
+    private static final MethodType NO_ARGS_CONSTRUCTOR = MethodType.methodType(void.class);
+
+    private static final ClassValue<Supplier<?>> SUPPLIERS = new ClassValue<>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            return createSupplier(type);
+        }
+    };
+
+    private ComponentFactory() {}
+
+    /**
+     * @param type the component class
+     * @return the cached supplier of new instances of <code>type</code>
+     * @param <T> the Type to instantiate
+     * @throws IllegalArgumentException if <code>type</code> has no accessible no-args constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> supplierOf(Class<T> type) {
+        return (Supplier<T>) SUPPLIERS.get(type);
+    }
+
+    /**
+     * @param type the component class
+     * @return a new instance of <code>type</code>
+     * @param <T> the Type to instantiate
+     * @throws IllegalArgumentException if <code>type</code> has no accessible no-args constructor
+     */
+    public static <T> T newInstance(Class<T> type) {
+        return supplierOf(type).get();
+    }
+
+    private static Supplier<?> createSupplier(Class<?> type) {
+        final MethodHandles.Lookup lookup;
+        final MethodHandle constructor;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            constructor = lookup.findConstructor(type, NO_ARGS_CONSTRUCTOR);
+        } catch (ReflectiveOperationException | IllegalAccessError e) {
+            throw new IllegalArgumentException(String.format("No accessible no-args constructor in %s", type.getName()), e);
+        }
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup,
+                    "get",
+                    SUPPLIER_FACTORY,
+                    SUPPLIER_GET,
+                    constructor,
+                    MethodType.methodType(type));
+            return (Supplier<?>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            LOG.debug("Unable to spin a lambda factory for {}, using a method handle instead", type.getName(), e);
+        }
+
+        final MethodHandle handle = constructor.asType(SUPPLIER_GET);
+        return () -> {
+            try {
+                return handle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(String.format("Error instantiating class %s", type.getName()), e);
+            }
+        };
+    }
+
+}
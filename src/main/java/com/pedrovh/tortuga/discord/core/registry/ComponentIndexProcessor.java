@@ -0,0 +1,140 @@
+package com.pedrovh.tortuga.discord.core.registry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.pedrovh.tortuga.discord.core.registry.ComponentRegistry.*;
+
+/**
+ * Indexes, at compile time, the classes annotated with
+ * {@link com.pedrovh.tortuga.discord.core.command.Command},
+ * {@link com.pedrovh.tortuga.discord.core.listener.Listener} and
+ * {@link com.pedrovh.tortuga.discord.core.scheduler.Task} (types and methods)
+ * into {@value ComponentRegistry#INDEX_LOCATION}, which is read by {@link ComponentRegistry} at startup.
+ * <br>
+ * It's registered as a service, so it runs automatically when this library is in the compile classpath.
+ * <br>
+ * Incremental builds only compile the changed sources, so the entries of the previous index are kept, unless their
+ * class was compiled again or no longer exists. It claims every annotation type, so it also runs when the changed
+ * sources no longer have any of the annotations.
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    private static final Set<String> ANNOTATIONS = Set.of(
+            "com.pedrovh.tortuga.discord.core.command.Command",
+            "com.pedrovh.tortuga.discord.core.listener.Listener",
+            "com.pedrovh.tortuga.discord.core.scheduler.Task");
+
+    private final Set<String> entries = new TreeSet<>();
+    private final Set<String> compiled = new HashSet<>();
+    private boolean indexed;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            mergePreviousIndex();
+            if (indexed || !entries.isEmpty())
+                writeIndex();
+            return false;
+        }
+
+        for (Element root : roundEnv.getRootElements())
+            addCompiled(root);
+
+        for (TypeElement annotation : annotations) {
+            if (!ANNOTATIONS.contains(annotation.getQualifiedName().toString()))
+                continue;
+            String kind = kindOf(annotation.getQualifiedName().toString());
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind().isClass()) {
+                    entries.add(kind + SEPARATOR + binaryName(element));
+                } else if (element.getKind() == ElementKind.METHOD) {
+                    entries.add(KIND_TASK_METHOD + SEPARATOR + binaryName(element.getEnclosingElement()) + "#" + element.getSimpleName());
+                }
+            }
+        }
+        return false;
+    }
+
+    private String kindOf(String annotation) {
+        if (annotation.endsWith(".Command")) return KIND_COMMAND;
+        if (annotation.endsWith(".Listener")) return KIND_LISTENER;
+        return KIND_TASK;
+    }
+
+    private void addCompiled(Element element) {
+        if (!(element instanceof TypeElement type))
+            return;
+        compiled.add(binaryName(type));
+        for (Element enclosed : type.getEnclosedElements())
+            addCompiled(enclosed);
+    }
+
+    /**
+     * Adds the entries of the index written by a previous build whose class wasn't compiled in this one and still exists.
+     * The index is then rewritten even if it ends up empty, so removed components don't stay in it.
+     */
+    private void mergePreviousIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (var reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                indexed = true;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf(SEPARATOR);
+                    if (separator < 0) continue;
+                    String name = line.substring(separator + 1).trim();
+                    int method = name.indexOf('#');
+                    String type = method < 0 ? name : name.substring(0, method);
+                    if (!compiled.contains(type) && processingEnv.getElementUtils().getTypeElement(type.replace('$', '.')) != null)
+                        entries.add(line.trim());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no previous index, this is a full build
+        }
+    }
+
+    private String binaryName(Element type) {
+        return processingEnv.getElementUtils().getBinaryName((TypeElement) type).toString();
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to write " + INDEX_LOCATION + ", components will be scanned at runtime: " + e.getMessage());
+        }
+    }
+
+}
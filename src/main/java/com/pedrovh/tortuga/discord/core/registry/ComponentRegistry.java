@@ -0,0 +1,158 @@
+package com.pedrovh.tortuga.discord.core.registry;
+
+import com.pedrovh.tortuga.discord.core.DiscordProperties;
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.listener.Listener;
+import com.pedrovh.tortuga.discord.core.scheduler.Task;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Serves the classes annotated with {@link Command}, {@link Listener} and {@link Task}, and the methods annotated with {@link Task}.
+ * <br>
+ * Components are read from the index generated at compile time by {@link ComponentIndexProcessor}.
+ * If no index in the classpath has components in the <code>basePackage</code>, like when only a dependency was indexed,
+ * the <code>basePackage</code> is scanned once at runtime instead.
+ */
+public class ComponentRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ComponentRegistry.class);
+
+    public static final String INDEX_LOCATION = "META-INF/tortuga/components";
+    static final String SEPARATOR = " ";
+    static final String KIND_COMMAND = "command";
+    static final String KIND_LISTENER = "listener";
+    static final String KIND_TASK = "task";
+    static final String KIND_TASK_METHOD = "task-method";
+
+    private final Set<Class<?>> commands = new HashSet<>();
+    private final Set<Class<?>> listeners = new HashSet<>();
+    private final Set<Class<?>> tasks = new HashSet<>();
+    private final Set<Method> taskMethods = new HashSet<>();
+
+    private ComponentRegistry() {}
+
+    private static final class Holder {
+        private static final ComponentRegistry INSTANCE = load(DiscordResource.get(DiscordProperties.BASE_PACKAGE));
+    }
+
+    public static ComponentRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public Set<Class<?>> getCommands() {
+        return Collections.unmodifiableSet(commands);
+    }
+
+    public Set<Class<?>> getListeners() {
+        return Collections.unmodifiableSet(listeners);
+    }
+
+    public Set<Class<?>> getTasks() {
+        return Collections.unmodifiableSet(tasks);
+    }
+
+    public Set<Method> getTaskMethods() {
+        return Collections.unmodifiableSet(taskMethods);
+    }
+
+    /**
+     * Loads the components of the <code>basePackage</code>, from the generated index or, if it has none, from a classpath scan.
+     * @param basePackage the package containing the components
+     * @return the registry
+     */
+    public static ComponentRegistry load(String basePackage) {
+        var registry = new ComponentRegistry();
+        var loader = ComponentRegistry.class.getClassLoader();
+        try {
+            Enumeration<URL> indexes = loader.getResources(INDEX_LOCATION);
+            int found = 0;
+            while (indexes.hasMoreElements())
+                found += registry.readIndex(indexes.nextElement(), basePackage, loader);
+            if (found > 0) {
+                LOG.debug("Loaded {} components from {}", found, INDEX_LOCATION);
+                return registry;
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to read component index {}", INDEX_LOCATION, e);
+        }
+
+        LOG.info("No indexed components found, scanning package '{}'", basePackage);
+        var scanned = new ComponentRegistry();
+        scanned.scan(basePackage);
+        return scanned;
+    }
+
+    /**
+     * @return the number of entries of the index in the <code>basePackage</code>
+     */
+    private int readIndex(URL url, String basePackage, ClassLoader loader) throws IOException {
+        int count = 0;
+        try (var reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(SEPARATOR);
+                if (separator < 0) continue;
+
+                String kind = line.substring(0, separator);
+                String name = line.substring(separator + 1).trim();
+                if (!isInPackage(name, basePackage)) continue;
+
+                count++;
+                try {
+                    register(kind, name, loader);
+                } catch (ReflectiveOperationException e) {
+                    LOG.warn("Indexed component {} could not be loaded", name, e);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param name the binary name of a class, or of a class and method as <code>class#method</code>
+     * @param basePackage the package, or <code>null</code> for every package
+     * @return true if the class is in the package or one of its subpackages
+     */
+    static boolean isInPackage(String name, String basePackage) {
+        if (basePackage == null || basePackage.isEmpty())
+            return true;
+        return name.startsWith(basePackage) && name.length() > basePackage.length() && name.charAt(basePackage.length()) == '.';
+    }
+
+    private void register(String kind, String name, ClassLoader loader) throws ReflectiveOperationException {
+        switch (kind) {
+            case KIND_COMMAND -> commands.add(Class.forName(name, false, loader));
+            case KIND_LISTENER -> listeners.add(Class.forName(name, false, loader));
+            case KIND_TASK -> tasks.add(Class.forName(name, false, loader));
+            case KIND_TASK_METHOD -> {
+                int i = name.lastIndexOf('#');
+                taskMethods.add(Class.forName(name.substring(0, i), false, loader).getDeclaredMethod(name.substring(i + 1)));
+            }
+            default -> LOG.warn("Unknown component kind '{}' for {}", kind, name);
+        }
+    }
+
+    private void scan(String basePackage) {
+        var reflections = new Reflections(basePackage, Scanners.TypesAnnotated, Scanners.MethodsAnnotated);
+        commands.addAll(reflections.getTypesAnnotatedWith(Command.class));
+        listeners.addAll(reflections.getTypesAnnotatedWith(Listener.class));
+        tasks.addAll(reflections.getTypesAnnotatedWith(Task.class));
+        taskMethods.addAll(reflections.getMethodsAnnotatedWith(Task.class));
+    }
+
+}
@@ -1,12 +1,15 @@
 package com.pedrovh.tortuga.discord.core.scheduler;
 
-import com.pedrovh.tortuga.discord.core.DiscordProperties;
 import com.pedrovh.tortuga.discord.core.DiscordResource;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
+import com.pedrovh.tortuga.discord.core.jfr.CommandEvent;
+import com.pedrovh.tortuga.discord.core.jfr.TaskRunEvent;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import com.pedrovh.tortuga.discord.core.registry.ComponentRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Set;
@@ -21,10 +24,6 @@ import static com.pedrovh.tortuga.discord.core.DiscordResource.getPropertyOrPars
 public class SchedulerService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SchedulerService.class);
-    private static final Reflections REFLECTIONS = new Reflections(
-            DiscordResource.get(DiscordProperties.BASE_PACKAGE),
-            Scanners.TypesAnnotated,
-            Scanners.MethodsAnnotated);
 
     private static SchedulerService instance;
 
@@ -49,13 +48,13 @@ public class SchedulerService {
     }
 
     protected void initTasksCache() {
-        taskInstances = REFLECTIONS.getTypesAnnotatedWith(Task.class)
+        taskInstances = ComponentRegistry.getInstance().getTasks()
                 .stream()
                 .filter(c -> !isTaskEnabled(c.getName()) || !c.isInstance(Runnable.class) || Modifier.isAbstract(c.getModifiers()))
                 .map(this::getInstanceOf)
                 .collect(Collectors.toSet());
 
-        taskMethods = REFLECTIONS.getMethodsAnnotatedWith(Task.class)
+        taskMethods = ComponentRegistry.getInstance().getTaskMethods()
                 .stream()
                 .filter(m -> !isTaskEnabled(m.getName()) || Modifier.isStatic(m.getModifiers()))
                 .collect(Collectors.toSet());
@@ -84,8 +83,10 @@ public class SchedulerService {
                             try {
                                 task.invoke(null);
                             } catch (Exception e) {
+                                final Throwable cause = e instanceof InvocationTargetException target ? target.getCause() : e;
                                 String message = String.format("Error invoking method %s#%s", task.getClass().getName(), task.getName());
-                                LOG.error(message, e);
+                                LOG.error(message, cause);
+                                throw new TaskMethodException(cause);
                             }
                         },
                         String.format("%s#%s", task.getClass().getName(), task.getName())
@@ -103,12 +104,54 @@ public class SchedulerService {
         var unit = getPropertyOrParseDefaultTimeUnit(String.format("%s.unit", name), annotation.unit());
 
         LOG.debug("Scheduling task {} to run with a delay of {} {} and period of {} {}", name, delay, unit, period, unit);
-        scheduler.scheduleAtFixedRate(runnable, delay, period, unit);
+        scheduler.scheduleAtFixedRate(timed(runnable, name), delay, period, unit);
+    }
+
+    /**
+     * Records the runs of the task in <code>tortuga.task.time</code>, its failures in <code>tortuga.task.errors</code>
+     * and each run as a {@link TaskRunEvent}.
+     * <br>
+     * Failures of task methods, already logged, aren't rethrown, so the method still runs in the next period.
+     */
+    private static Runnable timed(Runnable runnable, String name) {
+        final var time = MetricsRegistry.getInstance().histogram("tortuga.task.time", "task", name);
+        final var errors = MetricsRegistry.getInstance().counter("tortuga.task.errors", "task", name);
+        return () -> {
+            final var event = new TaskRunEvent();
+            event.begin();
+            final long start = System.nanoTime();
+            String outcome = CommandEvent.ERROR;
+            try {
+                runnable.run();
+                outcome = CommandEvent.SUCCESS;
+            } catch (TaskMethodException e) {
+                errors.increment();
+            } catch (RuntimeException | Error e) {
+                errors.increment();
+                throw e;
+            } finally {
+                time.record(System.nanoTime() - start);
+                if (event.shouldCommit()) {
+                    event.task = name;
+                    event.outcome = outcome;
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * A failure of a task method, thrown so it's recorded as one.
+     */
+    private static final class TaskMethodException extends RuntimeException {
+        private TaskMethodException(Throwable cause) {
+            super(cause);
+        }
     }
 
     protected <T> T getInstanceOf(Class<T> clazz) {
         try {
-            return clazz.getDeclaredConstructor().newInstance();
+            return ComponentFactory.newInstance(clazz);
         } catch (Exception e) {
             String message = String.format("Error instantiating class %s", clazz.getName());
             LOG.error(message, e);
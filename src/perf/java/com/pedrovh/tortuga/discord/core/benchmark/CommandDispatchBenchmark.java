@@ -0,0 +1,91 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import com.pedrovh.tortuga.discord.core.listener.BaseMessageListener;
+import com.pedrovh.tortuga.discord.core.listener.BaseSlashCommandListener;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.message.MessageAuthor;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrovh.tortuga.discord.core.benchmark.Stubs.stub;
+
+/**
+ * Measures the whole path of a command through the listeners: routing, dispatch, cooldowns, instantiation,
+ * the handler and the metrics. The handlers do nothing and dispatch runs on the calling thread
+ * ({@link DirectExecutor}), so the result is the overhead of the framework per command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandDispatchBenchmark {
+
+    private static final Long BOT_ID = 1L;
+    private static final Long USER_ID = 2L;
+
+    private final BaseMessageListener messageListener = new BaseMessageListener() {};
+    private final BaseSlashCommandListener slashListener = new BaseSlashCommandListener() {};
+    private MessageCreateEvent text;
+    private MessageCreateEvent subcommand;
+    private MessageCreateEvent unknown;
+    private SlashCommandCreateEvent slash;
+
+    @Setup
+    public void setup() {
+        var user = stub(User.class, "getId", USER_ID);
+        var api = stub(DiscordApi.class, "getYourself", stub(User.class, "getId", BOT_ID));
+        var channel = stub(TextChannel.class);
+        text = event(api, channel, "!ping");
+        subcommand = event(api, channel, "!config prefix set ?");
+        unknown = event(api, channel, "!unknown command");
+        slash = stub(SlashCommandCreateEvent.class,
+                "getApi", api,
+                "getSlashCommandInteraction", stub(SlashCommandInteraction.class,
+                        "getCommandName", "ping",
+                        "getFullCommandName", "ping",
+                        "getUser", user,
+                        "getApi", api));
+    }
+
+    static MessageCreateEvent event(DiscordApi api, TextChannel channel, String content) {
+        var author = stub(MessageAuthor.class, "getId", USER_ID);
+        var message = stub(Message.class,
+                "getContent", content,
+                "getApi", api,
+                "getAuthor", author,
+                "getChannel", channel);
+        return stub(MessageCreateEvent.class,
+                "getMessage", message,
+                "getMessageContent", content,
+                "getMessageAuthor", author,
+                "getChannel", channel,
+                "getApi", api);
+    }
+
+    @Benchmark
+    public void textCommand() {
+        messageListener.onMessageCreate(text);
+    }
+
+    @Benchmark
+    public void textSubcommand() {
+        messageListener.onMessageCreate(subcommand);
+    }
+
+    @Benchmark
+    public void textUnknown() {
+        messageListener.onMessageCreate(unknown);
+    }
+
+    @Benchmark
+    public void slashCommand() {
+        slashListener.onSlashCommandCreate(slash);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import com.pedrovh.tortuga.discord.core.command.BotCommandLoader;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandRouter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link BotCommandLoader} lookups done for every command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandLookupBenchmark {
+
+    private final String slash = "ping";
+    private final String alias = "p";
+    private final String subcommand = "!config prefix set ?";
+
+    @Setup
+    public void setup() {
+        if (BotCommandLoader.getHandlerForSlash(slash) == null)
+            throw new IllegalStateException("Benchmark commands were not loaded");
+    }
+
+    @Benchmark
+    public Class<? extends SlashCommandHandler> slashHandler() {
+        return BotCommandLoader.getHandlerForSlash(slash);
+    }
+
+    @Benchmark
+    public Class<? extends TextCommandHandler> textAlias() {
+        return BotCommandLoader.getHandlerForText(alias);
+    }
+
+    @Benchmark
+    public TextCommandRouter.Route routeSubcommand() {
+        return BotCommandLoader.getTextRouter().route(subcommand, 1);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs dispatched events on the calling thread, so a benchmark measures the whole path of a command in one call.
+ * Set as <code>dispatch.executor</code> in the harness configuration.
+ */
+public class DirectExecutor implements Executor {
+
+    @Override
+    public void execute(Runnable command) {
+        command.run();
+    }
+
+}
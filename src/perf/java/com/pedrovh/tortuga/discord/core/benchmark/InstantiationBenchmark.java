@@ -0,0 +1,68 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import com.pedrovh.tortuga.discord.core.benchmark.command.Ping;
+import com.pedrovh.tortuga.discord.core.command.text.BaseTextCommandHandler;
+import com.pedrovh.tortuga.discord.core.listener.BaseMessageListener;
+import com.pedrovh.tortuga.discord.core.registry.ComponentFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the reflective instantiation of handlers with the cached {@link ComponentFactory} suppliers,
+ * and measures how the listeners get handler instances of each {@link com.pedrovh.tortuga.discord.core.command.Lifecycle}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstantiationBenchmark {
+
+    public static class Handler extends BaseTextCommandHandler {
+        @Override
+        protected void handle() {
+            // benchmark stub
+        }
+    }
+
+    public static class Listener extends BaseMessageListener {
+        <T> T instance(Class<T> type) {
+            return getHandlerInstance(type);
+        }
+    }
+
+    private final Class<Handler> type = Handler.class;
+    private final Listener listener = new Listener();
+    private Supplier<Handler> supplier;
+
+    @Setup
+    public void setup() {
+        supplier = ComponentFactory.supplierOf(type);
+    }
+
+    @Benchmark
+    public Handler reflection() throws ReflectiveOperationException {
+        return type.getDeclaredConstructor().newInstance();
+    }
+
+    @Benchmark
+    public Handler factory() {
+        return ComponentFactory.newInstance(type);
+    }
+
+    @Benchmark
+    public Handler supplier() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    public Handler listenerPrototype() {
+        return listener.instance(type);
+    }
+
+    @Benchmark
+    public Ping listenerSingleton() {
+        return listener.instance(Ping.class);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import com.pedrovh.tortuga.discord.core.listener.BaseMessageListener;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.message.MessageAuthor;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrovh.tortuga.discord.core.benchmark.Stubs.stub;
+
+/**
+ * Measures {@link BaseMessageListener#onMessageCreate(MessageCreateEvent)} for messages that are not commands.
+ * Run with <code>-prof gc</code>: <code>gc.alloc.rate.norm</code> should be 0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageFastPathBenchmark {
+
+    private static final Long BOT_ID = 1L;
+    private static final Long USER_ID = 2L;
+
+    private final BaseMessageListener listener = new BaseMessageListener() {};
+    private MessageCreateEvent chat;
+    private MessageCreateEvent ownCommand;
+    private MessageCreateEvent oversized;
+
+    @Setup
+    public void setup() {
+        var api = stub(DiscordApi.class, "getYourself", stub(User.class, "getId", BOT_ID));
+        chat = event(api, USER_ID, "just chatting, nothing to see here");
+        ownCommand = event(api, BOT_ID, "!ping");
+        oversized = event(api, USER_ID, "!" + "a".repeat(5_000));
+    }
+
+    private static MessageCreateEvent event(DiscordApi api, Long author, String content) {
+        var message = stub(Message.class,
+                "getContent", content,
+                "getApi", api,
+                "getAuthor", stub(MessageAuthor.class, "getId", author));
+        return stub(MessageCreateEvent.class, "getMessage", message, "getApi", api);
+    }
+
+    @Benchmark
+    public void rejectChat() {
+        listener.onMessageCreate(chat);
+    }
+
+    @Benchmark
+    public void rejectOwnCommand() {
+        listener.onMessageCreate(ownCommand);
+    }
+
+    @Benchmark
+    public void rejectOversized() {
+        listener.onMessageCreate(oversized);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import com.pedrovh.tortuga.discord.core.exception.BotException;
+import com.pedrovh.tortuga.discord.core.exception.BotWarning;
+import com.pedrovh.tortuga.discord.core.i18n.MessageResource;
+import org.javacord.api.entity.message.embed.EmbedBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures message lookups and the error path: {@link MessageResource#getMessage} and {@link BotException#getEmbed}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageResourceBenchmark {
+
+    private final Locale root = Locale.ROOT;
+    private final Locale portuguese = Locale.of("pt", "BR");
+    private final BotException error = new BotException("Something went wrong");
+    private final BotWarning warning = new BotWarning("You can't do that");
+
+    @Benchmark
+    public String plain() {
+        return MessageResource.getMessage(root, "benchmark.plain");
+    }
+
+    @Benchmark
+    public String arguments() {
+        return MessageResource.getMessage(root, "benchmark.args", "Bob", 3);
+    }
+
+    @Benchmark
+    public String nested() {
+        return MessageResource.getMessage(root, "benchmark.nested", "Bob");
+    }
+
+    @Benchmark
+    public String fallback() {
+        return MessageResource.getMessage(portuguese, "benchmark.greeting");
+    }
+
+    @Benchmark
+    public EmbedBuilder errorEmbed() {
+        return error.getEmbed(portuguese);
+    }
+
+    @Benchmark
+    public EmbedBuilder warningEmbed() {
+        return warning.getEmbed(root);
+    }
+
+    @Benchmark
+    public BotException newException() {
+        return new BotException("Something went wrong", true);
+    }
+
+    @Benchmark
+    public BotException newWarning() {
+        return new BotWarning("Something went wrong");
+    }
+
+}
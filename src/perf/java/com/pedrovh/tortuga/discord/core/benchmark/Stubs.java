@@ -0,0 +1,59 @@
+package com.pedrovh.tortuga.discord.core.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Offline stand-ins for Javacord entities and events, built with {@link Proxy}.
+ * <br>
+ * Answers are looked up by method name and returned as they are, so no-args calls don't allocate,
+ * unless they are an {@link Answer}, which is called with the arguments of each call.
+ * Methods without an answer return the default of their type: zero, false, an empty {@link Optional},
+ * a completed {@link CompletableFuture}, or the stub itself for fluent methods.
+ */
+public final class Stubs {
+
+    private Stubs() {}
+
+    /**
+     * An answer computed on each call, for results that can't be shared, like a pending request.
+     */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args);
+    }
+
+    public static <T> T stub(Class<T> type, Object... answers) {
+        final Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < answers.length; i += 2)
+            values.put((String) answers[i], answers[i + 1]);
+
+        return type.cast(Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object value = values.get(method.getName());
+            if (value instanceof Answer answer)
+                return answer.answer(args);
+            if (value != null || values.containsKey(method.getName()))
+                return value;
+            return defaultOf(proxy, method);
+        }));
+    }
+
+    private static Object defaultOf(Object proxy, Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+        if (method.getName().equals("equals")) return false;
+        if (method.getName().equals("toString")) return "stub";
+        if (returnType == boolean.class) return false;
+        if (returnType == long.class) return 0L;
+        if (returnType == int.class) return 0;
+        if (returnType == Optional.class) return Optional.empty();
+        if (returnType == CompletableFuture.class) return CompletableFuture.completedFuture(null);
+        if (returnType.isInstance(proxy)) return proxy;
+        return null;
+    }
+
+}
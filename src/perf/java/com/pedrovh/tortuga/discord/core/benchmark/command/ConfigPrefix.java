@@ -0,0 +1,23 @@
+package com.pedrovh.tortuga.discord.core.benchmark.command;
+
+import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.text.StatelessTextCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandContext;
+
+/**
+ * Multi-word text command that does nothing, routed through the longest match.
+ */
+@Command(name = "config prefix set", description = "benchmark stub", aliases = "prefix")
+public class ConfigPrefix extends StatelessTextCommandHandler {
+
+    @Override
+    protected void handle(TextCommandContext context) {
+        // benchmark stub
+    }
+
+    @Override
+    public boolean enabledInDMs() {
+        return true;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.pedrovh.tortuga.discord.core.benchmark.command;
+
+import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandContext;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandContext;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandHandler;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.interaction.SlashCommandOption;
+
+import java.util.List;
+
+/**
+ * Slash and text command that answers with what it was sent, so load tests go through a REST call per command.
+ */
+@Command(name = "echo", description = "load test stub")
+public class Echo implements SlashCommandHandler, TextCommandHandler {
+
+    @Override
+    public void handle(SlashCommandCreateEvent event) {
+        final var context = SlashCommandContext.of(event);
+        context.responder().respond(context.interaction().getFullCommandName());
+    }
+
+    @Override
+    public void handle(MessageCreateEvent event) {
+        final var context = TextCommandContext.of(event);
+        context.channel().sendMessage(String.join(" ", context.args()));
+    }
+
+    @Override
+    public boolean enabledInDMs() {
+        return true;
+    }
+
+    @Override
+    public boolean nsfw() {
+        return false;
+    }
+
+    @Override
+    public List<SlashCommandOption> getOptions() {
+        return List.of();
+    }
+
+}
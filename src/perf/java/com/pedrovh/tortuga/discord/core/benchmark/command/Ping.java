@@ -0,0 +1,44 @@
+package com.pedrovh.tortuga.discord.core.benchmark.command;
+
+import com.pedrovh.tortuga.discord.core.command.Command;
+import com.pedrovh.tortuga.discord.core.command.Lifecycle;
+import com.pedrovh.tortuga.discord.core.command.slash.SlashCommandHandler;
+import com.pedrovh.tortuga.discord.core.command.text.TextCommandHandler;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.interaction.SlashCommandOption;
+
+import java.util.List;
+
+/**
+ * Stateless slash and text command that does nothing, so benchmarks only measure the framework.
+ */
+@Command(name = "ping", description = "benchmark stub", aliases = "p", lifecycle = Lifecycle.SINGLETON)
+public class Ping implements SlashCommandHandler, TextCommandHandler {
+
+    @Override
+    public void handle(SlashCommandCreateEvent event) {
+        // benchmark stub
+    }
+
+    @Override
+    public void handle(MessageCreateEvent event) {
+        // benchmark stub
+    }
+
+    @Override
+    public boolean enabledInDMs() {
+        return true;
+    }
+
+    @Override
+    public boolean nsfw() {
+        return false;
+    }
+
+    @Override
+    public List<SlashCommandOption> getOptions() {
+        return List.of();
+    }
+
+}
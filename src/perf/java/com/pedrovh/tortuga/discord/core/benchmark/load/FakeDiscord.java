@@ -0,0 +1,239 @@
+package com.pedrovh.tortuga.discord.core.benchmark.load;
+
+import com.pedrovh.tortuga.discord.core.benchmark.Stubs;
+import com.pedrovh.tortuga.discord.core.capture.CapturedEvent;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.message.MessageAuthor;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.interaction.callback.InteractionImmediateResponseBuilder;
+import org.javacord.api.interaction.callback.InteractionOriginalResponseUpdater;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.pedrovh.tortuga.discord.core.benchmark.Stubs.stub;
+
+/**
+ * An offline stand-in for a bot connection: a fake {@link DiscordApi}, and the events it would receive.
+ * <br>
+ * REST calls made while handling the events don't leave the process, they complete after
+ * <code>latency</code> milliseconds, plus up to <code>jitter</code> random milliseconds.
+ * Each event carries the time it was meant to be sent, which is handed to the {@link Completion} when
+ * the bot responds to it, through any of the calls a handler or the listeners use to respond.
+ */
+public final class FakeDiscord {
+
+    public static final long BOT_ID = 1L;
+
+    /**
+     * Called once the response to an event completes.
+     */
+    @FunctionalInterface
+    public interface Completion {
+        /**
+         * @param intended the {@link System#nanoTime()} the event was meant to be sent at
+         */
+        void completed(long intended);
+    }
+
+    private final long latency;
+    private final long jitter;
+    private final Completion completion;
+    private final Executor rest = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong interactions = new AtomicLong();
+    private final DiscordApi api;
+    private final Message sent;
+
+    /**
+     * @param latency the time every REST call takes, in milliseconds
+     * @param jitter the maximum random time added to the latency, in milliseconds
+     * @param completion notified of every response
+     */
+    public FakeDiscord(long latency, long jitter, Completion completion) {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.completion = completion;
+        this.api = stub(DiscordApi.class, "getYourself", stub(User.class, "getId", BOT_ID));
+        this.sent = stub(Message.class, "getApi", api);
+    }
+
+    public DiscordApi getApi() {
+        return api;
+    }
+
+    /**
+     * @param command the full name of the slash command
+     * @param userId the user that sent it
+     * @param channelId the channel it was sent in
+     * @param intended the {@link System#nanoTime()} the event was meant to be sent at
+     * @return a slash command event without arguments, sent outside of servers
+     */
+    public SlashCommandCreateEvent slashCommand(String command, long userId, long channelId, long intended) {
+        return slashCommand(command, List.of(), 0L, userId, channelId, intended);
+    }
+
+    /**
+     * @param command the full name of the slash command, with its subcommands
+     * @param options the arguments of the command
+     * @param guildId the guild it was sent in, 0 outside of servers
+     * @param userId the user that sent it
+     * @param channelId the channel it was sent in
+     * @param intended the {@link System#nanoTime()} the event was meant to be sent at
+     * @return a slash command event
+     */
+    public SlashCommandCreateEvent slashCommand(String command, List<CapturedEvent.Option> options,
+                                                long guildId, long userId, long channelId, long intended) {
+        final var updater = stub(InteractionOriginalResponseUpdater.class,
+                "update", (Stubs.Answer) args -> rest(sent, intended));
+        final var responder = stub(InteractionImmediateResponseBuilder.class,
+                "respond", (Stubs.Answer) args -> rest(updater, intended));
+        final var arguments = options.stream().map(this::option).toList();
+        final int space = command.indexOf(' ');
+        final var interaction = stub(SlashCommandInteraction.class,
+                "getId", interactions.incrementAndGet(),
+                "getCommandName", space < 0 ? command : command.substring(0, space),
+                "getFullCommandName", command,
+                "getUser", user(userId),
+                "getChannel", Optional.of(channel(channelId, intended)),
+                "getServer", server(guildId),
+                "getApi", api,
+                "getArguments", arguments,
+                "getOptions", arguments,
+                "getArgumentByName", byName(arguments, Optional::of),
+                "getOptionByName", byName(arguments, Optional::of),
+                "getArgumentStringValueByName", byName(arguments, SlashCommandInteractionOption::getStringValue),
+                "getArgumentStringRepresentationValueByName", byName(arguments, SlashCommandInteractionOption::getStringRepresentationValue),
+                "getArgumentLongValueByName", byName(arguments, SlashCommandInteractionOption::getLongValue),
+                "getArgumentBooleanValueByName", byName(arguments, SlashCommandInteractionOption::getBooleanValue),
+                "getArgumentDecimalValueByName", byName(arguments, SlashCommandInteractionOption::getDecimalValue),
+                "createImmediateResponder", responder,
+                "respondLater", (Stubs.Answer) args -> delay(updater));
+        return stub(SlashCommandCreateEvent.class,
+                "getApi", api,
+                "getInteraction", interaction,
+                "getSlashCommandInteraction", interaction);
+    }
+
+    /**
+     * @param content the content of the message
+     * @param userId the user that sent it
+     * @param channelId the channel it was sent in
+     * @param intended the {@link System#nanoTime()} the event was meant to be sent at
+     * @return a message event sent outside of servers
+     */
+    public MessageCreateEvent message(String content, long userId, long channelId, long intended) {
+        return message(content, 0L, userId, channelId, intended);
+    }
+
+    /**
+     * @param content the content of the message
+     * @param guildId the guild it was sent in, 0 outside of servers
+     * @param userId the user that sent it
+     * @param channelId the channel it was sent in
+     * @param intended the {@link System#nanoTime()} the event was meant to be sent at
+     * @return a message event
+     */
+    public MessageCreateEvent message(String content, long guildId, long userId, long channelId, long intended) {
+        final var author = stub(MessageAuthor.class,
+                "getId", userId,
+                "getName", "user" + userId,
+                "getApi", api);
+        final var channel = channel(channelId, intended);
+        final var server = server(guildId);
+        final var message = stub(Message.class,
+                "getContent", content,
+                "getApi", api,
+                "getAuthor", author,
+                "getChannel", channel,
+                "getServer", server,
+                "reply", (Stubs.Answer) args -> rest(sent, intended));
+        return stub(MessageCreateEvent.class,
+                "getMessage", message,
+                "getMessageContent", content,
+                "getMessageAuthor", author,
+                "getChannel", channel,
+                "getServer", server,
+                "getApi", api);
+    }
+
+    private Optional<Server> server(long id) {
+        return id == 0 ? Optional.empty() : Optional.of(stub(Server.class, "getId", id, "getApi", api));
+    }
+
+    private SlashCommandInteractionOption option(CapturedEvent.Option option) {
+        final String value = option.value();
+        return stub(SlashCommandInteractionOption.class,
+                "getName", option.name(),
+                "getStringValue", Optional.of(value),
+                "getStringRepresentationValue", Optional.of(value),
+                "getLongValue", parse(value, Long::valueOf),
+                "getDecimalValue", parse(value, Double::valueOf),
+                "getBooleanValue", "true".equals(value) || "false".equals(value)
+                        ? Optional.of(Boolean.valueOf(value)) : Optional.empty(),
+                "getOptions", List.of(),
+                "getArguments", List.of());
+    }
+
+    private static <T> Optional<T> parse(String value, Function<String, T> parser) {
+        try {
+            return Optional.of(parser.apply(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Stubs.Answer byName(List<SlashCommandInteractionOption> options,
+                                       Function<SlashCommandInteractionOption, Optional<?>> value) {
+        return args -> options.stream()
+                .filter(option -> option.getName().equalsIgnoreCase((String) args[0]))
+                .findFirst()
+                .flatMap(value);
+    }
+
+    private User user(long id) {
+        return stub(User.class,
+                "getId", id,
+                "getName", "user" + id,
+                "getApi", api);
+    }
+
+    private TextChannel channel(long id, long intended) {
+        return stub(TextChannel.class,
+                "getId", id,
+                "getApi", api,
+                "sendMessage", (Stubs.Answer) args -> rest(sent, intended));
+    }
+
+    /**
+     * A REST call that responds to the event.
+     */
+    private <T> CompletableFuture<T> rest(T value, long intended) {
+        return CompletableFuture.supplyAsync(() -> {
+            completion.completed(intended);
+            return value;
+        }, delayed());
+    }
+
+    /**
+     * A REST call that doesn't respond to the event yet, like deferring an interaction.
+     */
+    private <T> CompletableFuture<T> delay(T value) {
+        return CompletableFuture.supplyAsync(() -> value, delayed());
+    }
+
+    private Executor delayed() {
+        final long delay = latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+        return CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, rest);
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.pedrovh.tortuga.discord.core.benchmark.load;
+
+import com.pedrovh.tortuga.discord.core.dispatch.DispatchExecutors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the listeners with a synthetic stream of slash and text commands, against a {@link FakeDiscord},
+ * and reports the throughput, the latency percentiles and the heap and threads used.
+ * See {@link Replay} to send the commands captured from a running bot instead.
+ * <br>
+ * Options are given as <code>key=value</code> arguments:
+ * <ul>
+ *     <li><code>rate</code>: commands sent per second (default 1000). Latency is measured from the time each command
+ *     was meant to be sent, so a bot that can't keep up shows it in the percentiles. Use 0 to send commands as fast as
+ *     they are answered, with <code>concurrency</code> of them in flight</li>
+ *     <li><code>concurrency</code>: commands in flight when <code>rate</code> is 0 (default 256)</li>
+ *     <li><code>duration</code> and <code>warmup</code>: seconds measured, and seconds sent before that (default 30 and 5)</li>
+ *     <li><code>latency</code> and <code>jitter</code>: milliseconds every REST call takes, plus up to
+ *     <code>jitter</code> random milliseconds (default 50 and 20)</li>
+ *     <li><code>slash</code>: fraction of the commands that are slash commands (default 0.5)</li>
+ *     <li><code>chat</code>: messages that aren't commands sent per command (default 0)</li>
+ *     <li><code>users</code> and <code>channels</code>: how many distinct users and channels send them (default 1000 and 100)</li>
+ *     <li><code>executor</code>: the dispatch executor, as in <code>dispatch.executor</code> (default virtual)</li>
+ * </ul>
+ * The rest of the bot is configured by the <code>discord.properties</code> of the harness.
+ * Only platform threads are counted, virtual threads aren't visible to the {@link java.lang.management.ThreadMXBean}.
+ */
+public final class LoadGenerator {
+
+    private static final String COMMAND = "echo";
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Options options;
+    private final LoadTarget target;
+    private final Semaphore inFlight;
+
+    public LoadGenerator(Options options) {
+        this.options = options;
+        this.inFlight = new Semaphore(options.concurrency());
+        this.target = new LoadTarget(options.latency(), options.jitter(), options.executor(), () -> {
+            if (options.rate() <= 0)
+                inFlight.release();
+        });
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        new LoadGenerator(Options.parse(args)).run();
+    }
+
+    /**
+     * Sends commands for the warmup and the duration, waits for them to be answered and prints the report.
+     */
+    public void run() throws InterruptedException {
+        System.out.println(options);
+        target.start();
+        final long start = System.nanoTime();
+        final long measureFrom = start + options.warmup() * SECOND;
+        final long measureTo = measureFrom + options.duration() * SECOND;
+        target.measure(measureFrom, measureTo);
+        final long interval = options.rate() > 0 ? SECOND / options.rate() : 0;
+
+        for (long i = 0; ; i++) {
+            final long intended;
+            if (interval > 0) {
+                intended = start + i * interval;
+                waitUntil(intended);
+            } else {
+                inFlight.acquire();
+                intended = System.nanoTime();
+            }
+            if (intended >= measureTo)
+                break;
+            send(intended);
+        }
+
+        target.drain();
+        target.report(options.duration());
+    }
+
+    private void send(long intended) {
+        final var random = ThreadLocalRandom.current();
+        final var discord = target.discord();
+        final long user = 10_000 + random.nextLong(options.users());
+        final long channel = 1_000 + user % options.channels();
+        for (int c = 0; c < options.chat(); c++)
+            target.chat(discord.message("just chatting", user, channel, intended));
+
+        if (random.nextDouble() < options.slash())
+            target.slashCommand(discord.slashCommand(COMMAND, user, channel, intended));
+        else
+            target.command(discord.message("!" + COMMAND + " hello", user, channel, intended));
+    }
+
+    /**
+     * @param args <code>key=value</code> arguments
+     * @return the values by key
+     */
+    static Map<String, String> arguments(String... args) {
+        final Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0)
+                throw new IllegalArgumentException("Expected key=value, got '" + arg + "'");
+            values.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+        return values;
+    }
+
+    static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0)
+            LockSupport.parkNanos(remaining);
+    }
+
+    /**
+     * Options of a load test, see {@link LoadGenerator}.
+     */
+    public record Options(int rate, int concurrency, long duration, long warmup, long latency, long jitter,
+                          double slash, int chat, int users, int channels, String executor) {
+
+        public static Options parse(String... args) {
+            final Map<String, String> values = arguments(args);
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("rate", "1000")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "256")),
+                    Long.parseLong(values.getOrDefault("duration", "30")),
+                    Long.parseLong(values.getOrDefault("warmup", "5")),
+                    Long.parseLong(values.getOrDefault("latency", "50")),
+                    Long.parseLong(values.getOrDefault("jitter", "20")),
+                    Double.parseDouble(values.getOrDefault("slash", "0.5")),
+                    Integer.parseInt(values.getOrDefault("chat", "0")),
+                    Integer.parseInt(values.getOrDefault("users", "1000")),
+                    Integer.parseInt(values.getOrDefault("channels", "100")),
+                    values.getOrDefault("executor", DispatchExecutors.VIRTUAL));
+        }
+
+    }
+
+}
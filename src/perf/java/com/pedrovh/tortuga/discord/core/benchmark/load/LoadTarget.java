@@ -0,0 +1,247 @@
+package com.pedrovh.tortuga.discord.core.benchmark.load;
+
+import com.pedrovh.tortuga.discord.core.DiscordResource;
+import com.pedrovh.tortuga.discord.core.dispatch.DispatchExecutors;
+import com.pedrovh.tortuga.discord.core.listener.BaseMessageListener;
+import com.pedrovh.tortuga.discord.core.listener.BaseSlashCommandListener;
+import com.pedrovh.tortuga.discord.core.metrics.Counter;
+import com.pedrovh.tortuga.discord.core.metrics.Histogram;
+import com.pedrovh.tortuga.discord.core.metrics.MetricsRegistry;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.pedrovh.tortuga.discord.core.DiscordProperties.DISPATCH_QUEUE_REPLY;
+
+/**
+ * The bot under load: a slash command and a message listener, answering through a {@link FakeDiscord},
+ * and what was measured while they ran.
+ * <br>
+ * Commands are counted as sent when given to {@link #slashCommand} or {@link #command}, and as answered when their
+ * response completes. Latency is measured from the time they were meant to be sent, for the commands meant to be
+ * sent within {@link #measure}.
+ */
+final class LoadTarget {
+
+    private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    private final FakeDiscord discord;
+    private final Executor executor;
+    private final Runnable done;
+    private final SlashListener slashListener = new SlashListener();
+    private final MessageListener messageListener = new MessageListener();
+    private final Histogram latency = MetricsRegistry.getInstance().histogram("tortuga.load.latency");
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder answered = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder measured = new LongAdder();
+    private final LongAccumulator heap = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator threads = new LongAccumulator(Math::max, 0);
+    private final boolean shedReplies = Boolean.TRUE.equals(DiscordResource.getBoolean(DISPATCH_QUEUE_REPLY, false));
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "tortuga-load-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long measureFrom = Long.MIN_VALUE;
+    private volatile long measureTo = Long.MAX_VALUE;
+    private long gcTime;
+    private long gcCount;
+
+    /**
+     * @param latency milliseconds every REST call takes
+     * @param jitter maximum random milliseconds added to the latency
+     * @param executor the dispatch executor, as in <code>dispatch.executor</code>
+     * @param done called when a command is answered, or shed without an answer
+     */
+    LoadTarget(long latency, long jitter, String executor, Runnable done) {
+        this.discord = new FakeDiscord(latency, jitter, this::answered);
+        this.executor = DispatchExecutors.create(executor);
+        this.done = done;
+    }
+
+    FakeDiscord discord() {
+        return discord;
+    }
+
+    /**
+     * Only measures the latency of commands meant to be sent from <code>from</code> until <code>to</code>.
+     */
+    void measure(long from, long to) {
+        measureFrom = from;
+        measureTo = to;
+    }
+
+    /**
+     * Starts sampling the heap and threads, and printing the progress every second.
+     */
+    void start() {
+        gcTime = gcTime();
+        gcCount = gcCount();
+        monitor.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+        monitor.scheduleAtFixedRate(this::progress, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sends a slash and a text command, not counted, and waits for their answers,
+     * so the first commands measured don't pay for loading the bot.
+     */
+    void warmup() throws InterruptedException {
+        final var answers = new CountDownLatch(2);
+        final var warmup = new FakeDiscord(0, 0, intended -> answers.countDown());
+        slashListener.onSlashCommandCreate(warmup.slashCommand("echo", 2L, 2L, 0L));
+        messageListener.onMessageCreate(warmup.message("!echo", 2L, 2L, 0L));
+        if (!answers.await(30, TimeUnit.SECONDS))
+            System.out.println("The warmup commands weren't answered");
+    }
+
+    void slashCommand(SlashCommandCreateEvent event) {
+        sent.increment();
+        slashListener.onSlashCommandCreate(event);
+    }
+
+    /**
+     * Sends a slash command that won't be answered, because it has no handler.
+     */
+    void unknownSlashCommand(SlashCommandCreateEvent event) {
+        slashListener.onSlashCommandCreate(event);
+    }
+
+    void command(MessageCreateEvent event) {
+        sent.increment();
+        messageListener.onMessageCreate(event);
+    }
+
+    /**
+     * Sends a message that won't be answered, because it isn't a command.
+     */
+    void chat(MessageCreateEvent event) {
+        messageListener.onMessageCreate(event);
+    }
+
+    /**
+     * Waits until every command sent is answered, for up to 30 seconds.
+     */
+    void drain() throws InterruptedException {
+        final long from = System.nanoTime();
+        while (pending() > 0 && System.nanoTime() - from < DRAIN_TIMEOUT)
+            Thread.sleep(10);
+        monitor.shutdownNow();
+    }
+
+    private void answered(long intended) {
+        final long now = System.nanoTime();
+        answered.increment();
+        if (intended >= measureFrom && intended < measureTo) {
+            latency.record(now - intended);
+            measured.increment();
+        }
+        done.run();
+    }
+
+    private void shed() {
+        shed.increment();
+        if (!shedReplies)
+            done.run();
+    }
+
+    long pending() {
+        return sent.sum() - answered.sum() - (shedReplies ? 0 : shed.sum());
+    }
+
+    private void sample() {
+        heap.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        threads.accumulate(ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private void progress() {
+        System.out.printf(Locale.ROOT, "sent %d, answered %d, shed %d, pending %d, heap %d MiB%n",
+                sent.sum(), answered.sum(), shed.sum(), pending(),
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+    }
+
+    /**
+     * Prints what was measured.
+     * @param seconds how long the measured commands took to send, for the throughput
+     */
+    void report(double seconds) {
+        final var snapshot = latency.snapshot();
+        final var memory = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        final var out = new StringBuilder()
+                .append("\nCommands:   ").append(sent.sum()).append(" sent, ")
+                .append(answered.sum()).append(" answered, ")
+                .append(shed.sum()).append(" shed, ")
+                .append(pending()).append(" unanswered, ")
+                .append(count("tortuga.command.errors")).append(" errors, ")
+                .append(count("tortuga.command.warnings")).append(" warnings\n")
+                .append(String.format(Locale.ROOT, "Throughput: %.1f commands/s answered%n", measured.sum() / seconds))
+                .append(String.format(Locale.ROOT, "Latency:    mean %s, p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n",
+                        millis((long) snapshot.mean()),
+                        millis(snapshot.percentile(50)),
+                        millis(snapshot.percentile(90)),
+                        millis(snapshot.percentile(99)),
+                        millis(snapshot.percentile(99.9)),
+                        millis(snapshot.max())))
+                .append(String.format(Locale.ROOT, "Heap:       peak %d MiB used, %d MiB committed, %d MiB max, %d collections in %d ms%n",
+                        heap.get() >> 20, memory.getCommitted() >> 20, memory.getMax() >> 20,
+                        gcCount() - gcCount, gcTime() - gcTime))
+                .append(String.format(Locale.ROOT, "Threads:    peak %d platform threads, %d at the end%n",
+                        threads.get(), ManagementFactory.getThreadMXBean().getThreadCount()));
+        System.out.print(out);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000d);
+    }
+
+    private static long count(String name) {
+        long total = 0;
+        for (var metric : MetricsRegistry.getInstance().getMetrics().entrySet())
+            if (metric.getKey().name().equals(name) && metric.getValue() instanceof Counter counter)
+                total += counter.count();
+        return total;
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private final class SlashListener extends BaseSlashCommandListener {
+        @Override
+        protected Executor getExecutor() {
+            return executor;
+        }
+
+        @Override
+        protected void rejected(SlashCommandCreateEvent event) {
+            super.rejected(event);
+            shed();
+        }
+    }
+
+    private final class MessageListener extends BaseMessageListener {
+        @Override
+        protected Executor getExecutor() {
+            return executor;
+        }
+
+        @Override
+        protected void rejected(MessageCreateEvent event, String command) {
+            super.rejected(event, command);
+            shed();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.pedrovh.tortuga.discord.core.benchmark.load;
+
+import com.pedrovh.tortuga.discord.core.capture.CapturedEvent;
+import com.pedrovh.tortuga.discord.core.capture.EventReader;
+import com.pedrovh.tortuga.discord.core.capture.EventReplayer;
+import com.pedrovh.tortuga.discord.core.command.BotCommandLoader;
+import com.pedrovh.tortuga.discord.core.dispatch.DispatchExecutors;
+import com.pedrovh.tortuga.discord.core.guild.GuildSettingsService;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the command events captured from a running bot (<code>capture.file</code>) through the listeners,
+ * against a {@link FakeDiscord}, and reports the same measures as the {@link LoadGenerator}.
+ * <br>
+ * Options are given as <code>key=value</code> arguments:
+ * <ul>
+ *     <li><code>file</code>: the capture file (required)</li>
+ *     <li><code>speed</code>: 1 to replay the events as they were received, 10 to replay them ten times faster,
+ *     or <code>max</code> to send them as fast as possible (default 1)</li>
+ *     <li><code>gap</code>: the longest wait between two events, in seconds, before the speed is applied (default 5)</li>
+ *     <li><code>latency</code>, <code>jitter</code> and <code>executor</code>: as in the {@link LoadGenerator}</li>
+ * </ul>
+ * Commands without a handler in the classpath are sent too, but not expected to be answered.
+ */
+public final class Replay {
+
+    private static final double SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private Replay() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final Map<String, String> values = LoadGenerator.arguments(args);
+        final String file = values.get("file");
+        if (file == null)
+            throw new IllegalArgumentException("Missing the capture file, file=<path>");
+        final String speed = values.getOrDefault("speed", "1");
+        final var replayer = new EventReplayer(
+                "max".equalsIgnoreCase(speed) ? EventReplayer.MAX_SPEED : Double.parseDouble(speed),
+                Long.parseLong(values.getOrDefault("gap", "5")), TimeUnit.SECONDS);
+        final var target = new LoadTarget(
+                Long.parseLong(values.getOrDefault("latency", "50")),
+                Long.parseLong(values.getOrDefault("jitter", "20")),
+                values.getOrDefault("executor", DispatchExecutors.VIRTUAL),
+                () -> {});
+        System.out.printf(Locale.ROOT, "Replaying %s at %s%n", file, "max".equalsIgnoreCase(speed) ? "max speed" : speed + "x");
+
+        target.warmup();
+        target.start();
+        final long start = System.nanoTime();
+        final long count;
+        final long skippedFrames;
+        final long skippedBytes;
+        try (var reader = new EventReader(Paths.get(file))) {
+            count = replayer.replay(reader, (event, due) -> send(target, event, due));
+            skippedFrames = reader.getSkippedFrames();
+            skippedBytes = reader.getSkippedBytes();
+        }
+        final long elapsed = System.nanoTime() - start;
+        target.drain();
+        System.out.printf(Locale.ROOT, "%nReplayed %d events in %.1fs%n", count, elapsed / SECOND);
+        if (skippedFrames > 0)
+            System.out.printf(Locale.ROOT, "Skipped %d corrupted frames, %d bytes%n", skippedFrames, skippedBytes);
+        target.report(Math.max(elapsed, 1) / SECOND);
+    }
+
+    private static void send(LoadTarget target, CapturedEvent event, long due) {
+        final var discord = target.discord();
+        switch (event.kind()) {
+            case SLASH -> {
+                final var slash = discord.slashCommand(event.content(), event.options(),
+                        event.guildId(), event.userId(), event.channelId(), due);
+                if (BotCommandLoader.getHandlerForSlash(slash.getSlashCommandInteraction().getCommandName()) != null)
+                    target.slashCommand(slash);
+                else
+                    target.unknownSlashCommand(slash);
+            }
+            case TEXT -> {
+                final var message = discord.message(event.content(), event.guildId(), event.userId(), event.channelId(), due);
+                if (isCommand(event))
+                    target.command(message);
+                else
+                    target.chat(message);
+            }
+        }
+    }
+
+    private static boolean isCommand(CapturedEvent event) {
+        final String prefix = GuildSettingsService.getInstance().getPrefix(event.guildId());
+        return prefix != null
+                && event.content().startsWith(prefix)
+                && BotCommandLoader.getTextRouter().route(event.content(), prefix.length()) != null;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.pedrovh.tortuga.discord.core;
+
+import org.javacord.api.DiscordApi;
+import org.javacord.api.DiscordApiBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscordBotTest {
+
+    @TempDir
+    static Path dir;
+
+    @BeforeAll
+    static void configure() throws IOException {
+        final Path config = dir.resolve("discord.properties");
+        Files.writeString(config, """
+                basePackage=com.pedrovh.tortuga.discord.core.none
+                shards.concurrency=3
+                """);
+        System.setProperty(DiscordResource.CONFIG_FILE_PROPERTY, config.toString());
+        DiscordResource.load();
+    }
+
+    @AfterAll
+    static void restore() {
+        System.clearProperty(DiscordResource.CONFIG_FILE_PROPERTY);
+        DiscordResource.load();
+    }
+
+    /**
+     * Logs shards in without connecting to discord, recording the ids of each login.
+     */
+    private static final class FakeBuilder extends DiscordApiBuilder {
+
+        private final List<List<Integer>> logins = new CopyOnWriteArrayList<>();
+
+        @Override
+        public List<CompletableFuture<DiscordApi>> loginShards(int... shards) {
+            logins.add(Arrays.stream(shards).boxed().toList());
+            final List<CompletableFuture<DiscordApi>> apis = new ArrayList<>();
+            for (int ignored : shards)
+                apis.add(CompletableFuture.completedFuture(api()));
+            return apis;
+        }
+
+        private static DiscordApi api() {
+            return (DiscordApi) Proxy.newProxyInstance(DiscordBotTest.class.getClassLoader(), new Class<?>[]{DiscordApi.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "disconnect" -> CompletableFuture.completedFuture(null);
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+    }
+
+    @Test
+    void restartsOnlyTheGivenShard() throws Exception {
+        final var builder = new FakeBuilder();
+        builder.setTotalShards(3);
+        final var bot = new DiscordBot(builder);
+        bot.start().get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of(0, 1, 2)), builder.logins);
+        final DiscordApi previous = bot.getShard(2).getApi();
+
+        final DiscordApi restarted = bot.restart(2).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(List.of(0, 1, 2), List.of(2)), builder.logins);
+        assertEquals(3, bot.getTotalShards());
+        assertNotSame(previous, restarted);
+        assertSame(restarted, bot.getShard(2).getApi());
+        assertEquals(DiscordShard.Status.CONNECTED, bot.getShard(2).getStatus());
+    }
+
+}
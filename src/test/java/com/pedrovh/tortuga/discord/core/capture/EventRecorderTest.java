@@ -0,0 +1,128 @@
+package com.pedrovh.tortuga.discord.core.capture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRecorderTest {
+
+    private static final long EPOCH = 1_700_000_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private static CapturedEvent slash(int i) {
+        return new CapturedEvent(CapturedEvent.Kind.SLASH, EPOCH + i * 1_500L, 100 + i, 1L, 2L, 3L, "music play",
+                List.of(new CapturedEvent.Option("song", "track " + i), new CapturedEvent.Option("loop", "true")));
+    }
+
+    private static CapturedEvent text(int i) {
+        return new CapturedEvent(CapturedEvent.Kind.TEXT, EPOCH + i * 1_500L, 200 + i, 0L, 4L, 5L, ".ping ção " + i, List.of());
+    }
+
+    private static void record(Path file, CapturedEvent... events) throws IOException {
+        try (var recorder = new EventRecorder(file)) {
+            for (var event : events)
+                recorder.record(event);
+        }
+    }
+
+    private static List<CapturedEvent> readAll(EventReader reader) throws IOException {
+        final List<CapturedEvent> events = new ArrayList<>();
+        CapturedEvent event;
+        while ((event = reader.read()) != null)
+            events.add(event);
+        return events;
+    }
+
+    @Test
+    void readsBackWhatWasRecorded() throws IOException {
+        final Path file = dir.resolve("capture.tcap");
+        record(file, slash(1), text(2), slash(3));
+
+        try (var reader = new EventReader(file)) {
+            assertEquals(List.of(slash(1), text(2), slash(3)), readAll(reader));
+            assertEquals(0, reader.getSkippedFrames());
+            assertEquals(0, reader.getSkippedBytes());
+        }
+    }
+
+    @Test
+    void readsRecordingsAppendedToTheSameFile() throws IOException {
+        final Path file = dir.resolve("capture.tcap");
+        record(file, slash(1), text(2));
+        // an earlier timestamp, the next recording doesn't depend on the last event of the previous one
+        record(file, text(0), slash(5));
+
+        try (var reader = new EventReader(file)) {
+            assertEquals(List.of(slash(1), text(2), text(0), slash(5)), readAll(reader));
+        }
+    }
+
+    @Test
+    void endsAtAnEventCutShort() throws IOException {
+        final Path file = dir.resolve("capture.tcap");
+        record(file, slash(1), text(2));
+        truncate(file, 3);
+
+        try (var reader = new EventReader(file)) {
+            assertEquals(List.of(slash(1)), readAll(reader));
+        }
+    }
+
+    @Test
+    void skipsAnEventCutShortByTheNextRecording() throws IOException {
+        final Path file = dir.resolve("capture.tcap");
+        record(file, slash(1), text(2), slash(3));
+        truncate(file, 10);
+        record(file, text(4), slash(5));
+
+        try (var reader = new EventReader(file)) {
+            assertEquals(List.of(slash(1), text(2), text(4), slash(5)), readAll(reader));
+            assertEquals(1, reader.getSkippedFrames());
+            assertTrue(reader.getSkippedBytes() > 0);
+        }
+    }
+
+    @Test
+    void skipsAMarkerCutShortByTheNextRecording() throws IOException {
+        final Path file = dir.resolve("capture.tcap");
+        record(file, slash(1));
+        try (var channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(EventRecorder.SEGMENT, 0, 7));
+        }
+        record(file, text(2));
+
+        try (var reader = new EventReader(file)) {
+            assertEquals(List.of(slash(1), text(2)), readAll(reader));
+            assertEquals(1, reader.getSkippedFrames());
+            assertEquals(7, reader.getSkippedBytes());
+        }
+    }
+
+    @Test
+    void refusesToAppendToAnotherFormat() throws IOException {
+        final Path file = dir.resolve("capture.tcap");
+        Files.writeString(file, "not a capture");
+
+        assertThrows(IOException.class, () -> new EventRecorder(file));
+        assertThrows(IOException.class, () -> new EventReader(file));
+    }
+
+    private static void truncate(Path file, int bytes) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - bytes);
+        }
+    }
+
+}
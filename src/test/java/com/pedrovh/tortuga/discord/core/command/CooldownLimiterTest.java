@@ -0,0 +1,125 @@
+package com.pedrovh.tortuga.discord.core.command;
+
+import com.pedrovh.tortuga.discord.core.exception.CooldownException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CooldownLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Cooldown(permits = 3, period = 3)
+    private static final class Burst {}
+
+    @Cooldown(permits = 1, period = 2)
+    private static final class Single {}
+
+    @Cooldown(permits = 2, period = 10)
+    @Cooldown(permits = 1, period = 10, scope = Cooldown.Scope.GUILD)
+    private static final class UserAndGuild {}
+
+    @Cooldown(permits = 1, period = 10, scope = Cooldown.Scope.GLOBAL)
+    private static final class Global {}
+
+    private static final class Unlimited {}
+
+    @Cooldown(permits = 1, period = 2)
+    private static final class Swept {}
+
+    @Test
+    void allowsBurstOfPermitsThenRejects() throws CooldownException {
+        for (int i = 0; i < 3; i++)
+            CooldownLimiter.acquire(Burst.class, 1L, 1L, START);
+
+        var e = assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Burst.class, 1L, 1L, START));
+        assertEquals(1_000, e.getRetryAfter());
+    }
+
+    @Test
+    void recoversOnePermitPerInterval() throws CooldownException {
+        for (int i = 0; i < 3; i++)
+            CooldownLimiter.acquire(Burst.class, 2L, 1L, START);
+
+        CooldownLimiter.acquire(Burst.class, 2L, 1L, START + SECOND);
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Burst.class, 2L, 1L, START + SECOND));
+
+        var e = assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Burst.class, 2L, 1L, START + SECOND + SECOND / 2));
+        assertEquals(500, e.getRetryAfter());
+        CooldownLimiter.acquire(Burst.class, 2L, 1L, START + 2 * SECOND);
+    }
+
+    @Test
+    void refillsTheWholeBurstAfterThePeriod() throws CooldownException {
+        for (int i = 0; i < 3; i++)
+            CooldownLimiter.acquire(Burst.class, 3L, 1L, START);
+
+        for (int i = 0; i < 3; i++)
+            CooldownLimiter.acquire(Burst.class, 3L, 1L, START + 10 * SECOND);
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Burst.class, 3L, 1L, START + 10 * SECOND));
+    }
+
+    @Test
+    void keepsUsersApart() throws CooldownException {
+        CooldownLimiter.acquire(Single.class, 1L, 1L, START);
+        CooldownLimiter.acquire(Single.class, 2L, 1L, START);
+
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Single.class, 1L, 2L, START));
+    }
+
+    @Test
+    void sharesGlobalLimit() throws CooldownException {
+        CooldownLimiter.acquire(Global.class, 1L, 1L, START);
+
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Global.class, 2L, 2L, START));
+    }
+
+    @Test
+    void givesBackPermitsWhenALaterLimitRejects() throws CooldownException {
+        CooldownLimiter.acquire(UserAndGuild.class, 1L, 1L, START);
+        // the guild limit rejects, so the user isn't charged
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(UserAndGuild.class, 1L, 1L, START));
+
+        // user 1 still has a permit left, used in another guild
+        CooldownLimiter.acquire(UserAndGuild.class, 1L, 2L, START);
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(UserAndGuild.class, 1L, 3L, START));
+    }
+
+    @Test
+    void releaseGivesBackThePermit() throws CooldownException {
+        CooldownLimiter.acquire(Single.class, 5L, 1L, START);
+        CooldownLimiter.release(Single.class, 5L, 1L);
+
+        CooldownLimiter.acquire(Single.class, 5L, 1L, START);
+    }
+
+    @Test
+    void handlersWithoutCooldownKeepNoBuckets() throws CooldownException {
+        for (int i = 0; i < 10; i++)
+            CooldownLimiter.acquire(Unlimited.class, 1L, 1L, START);
+
+        assertEquals(0, CooldownLimiter.size(Unlimited.class));
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() throws CooldownException {
+        // every 1024th acquisition sweeps
+        for (long user = 1; user < 1024; user++)
+            CooldownLimiter.acquire(Swept.class, user, 1L, START);
+        CooldownLimiter.acquire(Swept.class, 0L, 1L, START + SECOND);
+        assertEquals(1024, CooldownLimiter.size(Swept.class));
+
+        for (long user = 1; user < 1024; user++)
+            CooldownLimiter.acquire(Swept.class, user + 1024, 1L, START + 2 * SECOND);
+        CooldownLimiter.acquire(Swept.class, 1L, 1L, START + 2 * SECOND);
+
+        // users 2 to 1023 were evicted, user 0 still waits and user 1 took a permit from a new bucket
+        assertEquals(1023 + 2, CooldownLimiter.size(Swept.class));
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Swept.class, 0L, 1L, START + 2 * SECOND));
+        assertThrows(CooldownException.class, () -> CooldownLimiter.acquire(Swept.class, 1L, 1L, START + 2 * SECOND));
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.pedrovh.tortuga.discord.core.command.slash;
+
+import org.javacord.api.entity.channel.ChannelType;
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.interaction.DiscordLocale;
+import org.javacord.api.interaction.SlashCommandOption;
+import org.javacord.api.interaction.SlashCommandOptionBuilder;
+import org.javacord.api.interaction.SlashCommandOptionChoiceBuilder;
+import org.javacord.api.interaction.SlashCommandOptionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlashCommandFingerprintTest {
+
+    private static SlashCommandOption song(boolean localizedInOrder) {
+        final var builder = new SlashCommandOptionBuilder()
+                .setType(SlashCommandOptionType.STRING)
+                .setName("song")
+                .setDescription("The song to play")
+                .setRequired(true);
+        if (localizedInOrder) {
+            builder.addNameLocalization(DiscordLocale.PORTUGUESE_BRAZILIAN, "musica")
+                    .addNameLocalization(DiscordLocale.SPANISH, "cancion")
+                    .addDescriptionLocalization(DiscordLocale.PORTUGUESE_BRAZILIAN, "A música")
+                    .addDescriptionLocalization(DiscordLocale.SPANISH, "La canción");
+        } else {
+            builder.addNameLocalization(DiscordLocale.SPANISH, "cancion")
+                    .addNameLocalization(DiscordLocale.PORTUGUESE_BRAZILIAN, "musica")
+                    .addDescriptionLocalization(DiscordLocale.SPANISH, "La canción")
+                    .addDescriptionLocalization(DiscordLocale.PORTUGUESE_BRAZILIAN, "A música");
+        }
+        return builder.build();
+    }
+
+    private static SlashCommandOption source(boolean localizedInOrder) {
+        final var youtube = new SlashCommandOptionChoiceBuilder().setName("youtube").setValue("yt");
+        if (localizedInOrder)
+            youtube.addNameLocalization(DiscordLocale.GERMAN, "YouTube-de").addNameLocalization(DiscordLocale.FRENCH, "YouTube-fr");
+        else
+            youtube.addNameLocalization(DiscordLocale.FRENCH, "YouTube-fr").addNameLocalization(DiscordLocale.GERMAN, "YouTube-de");
+        return new SlashCommandOptionBuilder()
+                .setType(SlashCommandOptionType.STRING)
+                .setName("source")
+                .setDescription("Where to search")
+                .addChoice(youtube.build())
+                .addChoice("soundcloud", "sc")
+                .build();
+    }
+
+    private static SlashCommandOption channel(ChannelType... types) {
+        return new SlashCommandOptionBuilder()
+                .setType(SlashCommandOptionType.CHANNEL)
+                .setName("channel")
+                .setDescription("The channel to join")
+                .setChannelTypes(List.of(types))
+                .build();
+    }
+
+    private static SlashCommandDefinition play(List<SlashCommandOption> options) {
+        return new SlashCommandDefinition("play", "Plays a song", false, false,
+                EnumSet.of(PermissionType.SEND_MESSAGES, PermissionType.CONNECT), options);
+    }
+
+    private static SlashCommandDefinition play(boolean localizedInOrder) {
+        return play(List.of(song(localizedInOrder), source(localizedInOrder),
+                localizedInOrder ?
+                        channel(ChannelType.SERVER_VOICE_CHANNEL, ChannelType.SERVER_STAGE_VOICE_CHANNEL) :
+                        channel(ChannelType.SERVER_STAGE_VOICE_CHANNEL, ChannelType.SERVER_VOICE_CHANNEL)));
+    }
+
+    private static SlashCommandDefinition ping(boolean enabledInDMs) {
+        return new SlashCommandDefinition("ping", "Pong", enabledInDMs, false, null, List.of());
+    }
+
+    @Test
+    void isStableWhenCommandsAreListedInAnotherOrder() {
+        assertEquals(
+                SlashCommandFingerprint.of(List.of(play(true), ping(true)), false),
+                SlashCommandFingerprint.of(List.of(ping(true), play(true)), false));
+    }
+
+    @Test
+    void isStableWhenLocalizationsAndChannelTypesAreAddedInAnotherOrder() {
+        assertEquals(
+                SlashCommandFingerprint.of(List.of(play(true)), false),
+                SlashCommandFingerprint.of(List.of(play(false)), false));
+    }
+
+    @Test
+    void changesWhenOptionsAreReordered() {
+        final var reordered = play(List.of(source(true), song(true)));
+        assertNotEquals(
+                SlashCommandFingerprint.of(List.of(play(List.of(song(true), source(true)))), false),
+                SlashCommandFingerprint.of(List.of(reordered), false));
+    }
+
+    @Test
+    void changesWhenALocalizationChanges() {
+        final var option = new SlashCommandOptionBuilder()
+                .setType(SlashCommandOptionType.STRING)
+                .setName("song")
+                .setDescription("The song to play")
+                .setRequired(true)
+                .addNameLocalization(DiscordLocale.PORTUGUESE_BRAZILIAN, "canção")
+                .build();
+        assertNotEquals(
+                SlashCommandFingerprint.of(List.of(play(List.of(song(true)))), false),
+                SlashCommandFingerprint.of(List.of(play(List.of(option))), false));
+    }
+
+    @Test
+    void ignoresEnabledInDMsOnlyForServerCommands() {
+        assertEquals(
+                SlashCommandFingerprint.of(List.of(ping(true)), true),
+                SlashCommandFingerprint.of(List.of(ping(false)), true));
+        assertNotEquals(
+                SlashCommandFingerprint.of(List.of(ping(true)), false),
+                SlashCommandFingerprint.of(List.of(ping(false)), false));
+    }
+
+    @Test
+    void distinguishesUnrestrictedFromEmptyPermissions() {
+        final var anyone = ping(true);
+        final var nobody = new SlashCommandDefinition("ping", "Pong", true, false,
+                EnumSet.noneOf(PermissionType.class), List.of());
+        assertNotEquals(
+                SlashCommandFingerprint.of(List.of(anyone), false),
+                SlashCommandFingerprint.of(List.of(nobody), false));
+    }
+
+}
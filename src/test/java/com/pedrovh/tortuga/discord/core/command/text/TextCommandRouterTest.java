@@ -0,0 +1,92 @@
+package com.pedrovh.tortuga.discord.core.command.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextCommandRouterTest {
+
+    private abstract static class Handler implements TextCommandHandler {}
+    private abstract static class Play extends Handler {}
+    private abstract static class Config extends Handler {}
+    private abstract static class ConfigPrefixSet extends Handler {}
+
+    private static TextCommandRouter router(boolean ignoreCase) {
+        final var router = new TextCommandRouter(ignoreCase);
+        router.add("play", "play", Play.class);
+        router.add("p", "play", Play.class);
+        router.add("Config", "Config", Config.class);
+        router.add("config  prefix set", "config prefix set", ConfigPrefixSet.class);
+        return router;
+    }
+
+    @Test
+    void routesByNameAfterThePrefix() {
+        var route = router(false).route(".play never gonna", 1);
+
+        assertNotNull(route);
+        assertEquals(Play.class, route.handler());
+        assertEquals("play", route.command());
+        assertEquals(6, route.argumentsOffset());
+    }
+
+    @Test
+    void routesAliasesToTheCommandName() {
+        var route = router(false).route(".p   never gonna", 1);
+
+        assertNotNull(route);
+        assertEquals(Play.class, route.handler());
+        assertEquals("play", route.command());
+        assertEquals(".p   never gonna".indexOf("never"), route.argumentsOffset());
+    }
+
+    @Test
+    void matchesOnlyWholeWords() {
+        final var router = router(false);
+
+        assertNull(router.route(".playlist", 1));
+        assertNull(router.route(".pla", 1));
+        assertNull(router.route(".", 1));
+    }
+
+    @Test
+    void prefersTheLongestName() {
+        final var router = router(false);
+
+        var route = router.route("!config   prefix set ?", 1);
+        assertNotNull(route);
+        assertEquals(ConfigPrefixSet.class, route.handler());
+        assertEquals("!config   prefix set ?".indexOf('?'), route.argumentsOffset());
+
+        // a subcommand that doesn't match falls back to the command
+        route = router.route("!Config prefix get", 1);
+        assertNotNull(route);
+        assertEquals(Config.class, route.handler());
+        assertEquals("!Config prefix get".indexOf("prefix"), route.argumentsOffset());
+    }
+
+    @Test
+    void matchesTheCaseOfTheNameUnlessIgnoringCase() {
+        assertNull(router(false).route(".PLAY", 1));
+        assertNull(router(false).route(".config", 1));
+
+        var route = router(true).route(".PLAY now", 1);
+        assertNotNull(route);
+        assertEquals(Play.class, route.handler());
+
+        route = router(true).route(".CONFIG Prefix SET x", 1);
+        assertNotNull(route);
+        assertEquals(ConfigPrefixSet.class, route.handler());
+        assertEquals("config prefix set", route.command());
+    }
+
+    @Test
+    void routesWithoutAPrefix() {
+        var route = router(false).route("p", 0);
+
+        assertNotNull(route);
+        assertEquals(Play.class, route.handler());
+        assertEquals(1, route.argumentsOffset());
+    }
+
+}